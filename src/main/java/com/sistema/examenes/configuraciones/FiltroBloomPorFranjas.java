@@ -0,0 +1,80 @@
+package com.sistema.examenes.configuraciones;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Filtro de Bloom dividido en franjas de tiempo según la expiración de cada elemento.
+// Cada consulta revisa una sola franja con un número fijo de bits, y las franjas vencidas se reutilizan,
+// así la memoria depende de cuántos elementos vencen dentro de la ventana y no del total histórico
+public class FiltroBloomPorFranjas {
+
+    private static final int FUNCIONES = 5;
+
+    private final long anchoFranja;
+
+    private final int bitsPorFranja;
+
+    private final AtomicReferenceArray<Franja> franjas;
+
+    public FiltroBloomPorFranjas(long ventana, long anchoFranja, int bitsPorFranja) {
+        this.anchoFranja = anchoFranja;
+        this.bitsPorFranja = Math.max(64,Integer.highestOneBit(bitsPorFranja - 1) << 1);
+        this.franjas = new AtomicReferenceArray<>((int) (ventana / anchoFranja) + 2);
+    }
+
+    public void agregar(long hash1, long hash2, long expiracion){
+        long indice = expiracion / anchoFranja;
+        int posicion = (int) (indice % franjas.length());
+        Franja franja = franjas.get(posicion);
+        while(franja == null || franja.indice < indice){
+            Franja nueva = new Franja(indice,bitsPorFranja);
+            if(franjas.compareAndSet(posicion,franja,nueva)){
+                franja = nueva;
+            }else{
+                franja = franjas.get(posicion);
+            }
+        }
+        if(franja.indice != indice){
+            return;
+        }
+        for(int i = 0; i < FUNCIONES; i++){
+            int bit = bit(hash1,hash2,i);
+            long mascara = 1L << bit;
+            long actual;
+            do{
+                actual = franja.bits.get(bit >>> 6);
+            }while((actual & mascara) == 0 && !franja.bits.compareAndSet(bit >>> 6,actual,actual | mascara));
+        }
+    }
+
+    public boolean puedeContener(long hash1, long hash2, long expiracion){
+        long indice = expiracion / anchoFranja;
+        Franja franja = franjas.get((int) (indice % franjas.length()));
+        if(franja == null || franja.indice != indice){
+            return false;
+        }
+        for(int i = 0; i < FUNCIONES; i++){
+            int bit = bit(hash1,hash2,i);
+            if((franja.bits.get(bit >>> 6) & (1L << bit)) == 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bit(long hash1, long hash2, int funcion){
+        return (int) ((hash1 + funcion * hash2) & (bitsPorFranja - 1));
+    }
+
+    private static final class Franja {
+
+        private final long indice;
+
+        private final AtomicLongArray bits;
+
+        private Franja(long indice, int bits) {
+            this.indice = indice;
+            this.bits = new AtomicLongArray(bits >>> 6);
+        }
+    }
+}
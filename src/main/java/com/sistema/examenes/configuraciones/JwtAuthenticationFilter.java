@@ -1,7 +1,13 @@
 package com.sistema.examenes.configuraciones;
 
+import com.sistema.examenes.modelo.Authority;
+import com.sistema.examenes.modelo.UsuarioDetalles;
 import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,48 +21,84 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private JwtUtils jwtUtil;
 
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String requestTokenHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwtToken = null;
+        Claims claims = null;
 
         if(requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")){
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
 
             try{
-                username = this.jwtUtil.extractUsername(jwtToken);
+                claims = this.jwtUtil.validarToken(jwtToken);
             }catch (ExpiredJwtException exception){
-                System.out.println("El token ha expirado");
-            }catch (Exception e){
-                e.printStackTrace();
+                log.debug("El token ha expirado");
+            }catch (JwtException | IllegalArgumentException exception){
+                log.debug("El token no es valido: {}",exception.getMessage());
             }
 
         }else{
-            System.out.println("Token invalido , no empieza con bearer string");
+            log.trace("Token invalido , no empieza con bearer string");
         }
 
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if(this.jwtUtil.validateToken(jwtToken,userDetails)){
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails,null,userDetails.getAuthorities());
+        if(claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null){
+            UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = autenticar(claims);
+            if(usernamePasswordAuthenticationToken != null){
                 usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
             }
-        }else{
-            System.out.println("El token no es valido");
         }
         filterChain.doFilter(request,response);
     }
+
+    // Los tokens con el id y los roles del usuario se autentican sin consultar la base de datos;
+    // los emitidos antes de incluir esos claims todavía cargan el usuario
+    private UsernamePasswordAuthenticationToken autenticar(Claims claims){
+        String username = claims.getSubject();
+        if(JwtUtils.TIPO_REFRESCO.equals(claims.get(JwtUtils.CLAIM_TIPO))){
+            log.debug("Se intentó usar un token de refresco como token de acceso");
+            return null;
+        }
+        if(revocacionTokens.tokenRevocado(claims.getId(),claims.getExpiration())){
+            log.debug("El token {} fue revocado",claims.getId());
+            return null;
+        }
+        Number usuarioId = claims.get(JwtUtils.CLAIM_USUARIO_ID,Number.class);
+        List<?> roles = claims.get(JwtUtils.CLAIM_ROLES,List.class);
+        if(usuarioId == null || roles == null){
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            if(!username.equals(userDetails.getUsername())){
+                return null;
+            }
+            return new UsernamePasswordAuthenticationToken(userDetails,null,userDetails.getAuthorities());
+        }
+        if(revocacionTokens.revocado(usuarioId.longValue(),claims.getIssuedAt())){
+            log.debug("El token de {} fue revocado",username);
+            return null;
+        }
+        List<Authority> autoridades = new ArrayList<>(roles.size());
+        for(Object rol : roles){
+            autoridades.add(new Authority(rol.toString()));
+        }
+        UsuarioDetalles usuario = UsuarioDetalles.deToken(usuarioId.longValue(),username,autoridades);
+        return new UsernamePasswordAuthenticationToken(usuario,null,usuario.getAuthorities());
+    }
 }
@@ -1,22 +1,88 @@
 package com.sistema.examenes.configuraciones;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioDetalles;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 
 @Component
 public class JwtUtils {
 
-    private String SECRET_KEY = "examportal";
+    public static final String CLAIM_USUARIO_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TIPO = "tipo";
+    public static final String TIPO_ACCESO = "acceso";
+    public static final String TIPO_REFRESCO = "refresco";
+
+    private static final int LONGITUD_MINIMA_SECRETO = 32;
+
+    private final byte[] secreto;
+
+    // Tokens ya verificados, indexados por el resumen SHA-256 para no guardar el token en claro.
+    // Cada entrada vence cuando vence el token
+    private final Cache<String,Claims> tokensVerificados;
+
+    private final long duracionAcceso;
+
+    private final long duracionRefresco;
+
+    public JwtUtils(@Value("${examenes.jwt.secreto:}") String secreto,
+                    @Value("${examenes.jwt.cache.maximo:10000}") long maximo,
+                    @Value("${examenes.jwt.acceso-minutos:15}") long accesoMinutos,
+                    @Value("${examenes.jwt.refresco-minutos:10080}") long refrescoMinutos) {
+        // Los tokens con id y roles autentican sin consultar la base de datos: la clave debe ser secreta y larga
+        if(secreto == null || secreto.getBytes(StandardCharsets.UTF_8).length < LONGITUD_MINIMA_SECRETO){
+            throw new IllegalStateException("La propiedad examenes.jwt.secreto debe definirse con al menos "
+                    + LONGITUD_MINIMA_SECRETO + " bytes");
+        }
+        this.secreto = secreto.getBytes(StandardCharsets.UTF_8);
+        this.duracionAcceso = TimeUnit.MINUTES.toMillis(accesoMinutos);
+        this.duracionRefresco = TimeUnit.MINUTES.toMillis(refrescoMinutos);
+        this.tokensVerificados = maximo <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfter(new Expiry<String,Claims>() {
+                    @Override
+                    public long expireAfterCreate(String clave, Claims claims, long ahora) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0,claims.getExpiration().getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String clave, Claims claims, long ahora, long restante) {
+                        return restante;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String clave, Claims claims, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -27,32 +93,92 @@ public class JwtUtils {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = validarToken(token);
         return claimsResolver.apply(claims);
     }
+
+    // Verifica la firma y la expiración una sola vez por token; las peticiones siguientes con el mismo token usan la cache
+    public Claims validarToken(String token) {
+        if(tokensVerificados == null){
+            return extractAllClaims(token);
+        }
+        String clave = resumen(token);
+        Claims claims = tokensVerificados.getIfPresent(clave);
+        if(claims == null){
+            claims = extractAllClaims(token);
+            if(claims.getExpiration() != null){
+                tokensVerificados.put(clave,claims);
+            }
+            return claims;
+        }
+        if(claims.getExpiration().before(new Date())){
+            tokensVerificados.invalidate(clave);
+            throw new ExpiredJwtException(null,claims,"El token ha expirado");
+        }
+        return claims;
+    }
+
+    public CacheStats estadisticasCache() {
+        return tokensVerificados == null ? CacheStats.empty() : tokensVerificados.stats();
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+        return Jwts.parser().setSigningKey(secreto).parseClaimsJws(token).getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private String resumen(String token) {
+        try{
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        }catch (NoSuchAlgorithmException exception){
+            throw new IllegalStateException(exception);
+        }
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        Long usuarioId = usuarioId(userDetails);
+        if(usuarioId != null){
+            claims.put(CLAIM_USUARIO_ID, usuarioId);
+        }
+        List<String> roles = new ArrayList<>();
+        for(GrantedAuthority authority : userDetails.getAuthorities()){
+            roles.add(authority.getAuthority());
+        }
+        claims.put(CLAIM_ROLES, roles);
+        claims.put(CLAIM_TIPO, TIPO_ACCESO);
+        return createToken(claims, userDetails.getUsername(), duracionAcceso);
+    }
+
+    // El token de refresco no lleva roles: al usarlo se vuelven a leer del usuario
+    public String generarTokenDeRefresco(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USUARIO_ID, usuarioId(userDetails));
+        claims.put(CLAIM_TIPO, TIPO_REFRESCO);
+        return createToken(claims, userDetails.getUsername(), duracionRefresco);
+    }
+
+    private Long usuarioId(UserDetails userDetails) {
+        if(userDetails instanceof UsuarioDetalles){
+            return ((UsuarioDetalles) userDetails).getId();
+        }
+        if(userDetails instanceof Usuario){
+            return ((Usuario) userDetails).getId();
+        }
+        return null;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, long duracion) {
 
-        return Jwts.builder().setClaims(claims).setSubject(subject).setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY).compact();
+        return Jwts.builder().setClaims(claims).setSubject(subject).setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + duracion))
+                .signWith(SignatureAlgorithm.HS256, secreto).compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = validarToken(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
 }
@@ -0,0 +1,57 @@
+package com.sistema.examenes.configuraciones;
+
+import com.sistema.examenes.repositorios.ExamenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Component
+public class MetricasCacheSegundoNivel {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registrar(){
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics estadisticas = sessionFactory.getStatistics();
+        if(!sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled() || !estadisticas.isStatisticsEnabled()){
+            return;
+        }
+        Set<String> regiones = new LinkedHashSet<>();
+        for(String region : estadisticas.getSecondLevelCacheRegionNames()){
+            regiones.add(region);
+        }
+        regiones.add(ExamenRepository.CONSULTAS_EXAMENES);
+        for(String region : regiones){
+            Gauge.builder("hibernate.cache.region.ratio-aciertos",estadisticas,actual -> ratioDeAciertos(actual,region))
+                    .tag("region",region)
+                    .register(meterRegistry);
+        }
+    }
+
+    static double ratioDeAciertos(Statistics estadisticas,String region){
+        if(!estadisticas.isStatisticsEnabled()){
+            return Double.NaN;
+        }
+        // Las regiones de consultas se crean con la primera consulta y no tienen estadísticas antes
+        CacheRegionStatistics estadisticasRegion = estadisticas.getCacheRegionStatistics(region);
+        if(estadisticasRegion == null){
+            return 0;
+        }
+        long accesos = estadisticasRegion.getHitCount() + estadisticasRegion.getMissCount();
+        return accesos == 0 ? 0 : (double) estadisticasRegion.getHitCount() / accesos;
+    }
+}
@@ -0,0 +1,82 @@
+package com.sistema.examenes.configuraciones;
+
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class MigracionPuntajesExamen implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionPuntajesExamen.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if(!existenColumnasAntiguas()){
+            return;
+        }
+
+        List<Object[]> actualizaciones = new ArrayList<>();
+        jdbcTemplate.query("select examen_id, puntos_maximos, numero_de_preguntas from examenes " +
+                "where puntaje_maximo is null or cantidad_preguntas is null",rs -> {
+            Double puntosMaximos = aNumero(rs.getString("puntos_maximos"));
+            Double numeroDePreguntas = aNumero(rs.getString("numero_de_preguntas"));
+            Integer cantidad = numeroDePreguntas != null ? numeroDePreguntas.intValue() : null;
+            Double puntosPorPregunta = puntosMaximos != null && cantidad != null && cantidad > 0 ? puntosMaximos/cantidad : null;
+            actualizaciones.add(new Object[]{puntosMaximos,cantidad,puntosPorPregunta,rs.getLong("examen_id")});
+        });
+
+        if(!actualizaciones.isEmpty()){
+            jdbcTemplate.batchUpdate("update examenes set puntaje_maximo = ?, cantidad_preguntas = ?, puntos_por_pregunta = ? " +
+                    "where examen_id = ?",actualizaciones);
+            log.info("Se migraron los puntajes de {} examenes",actualizaciones.size());
+            // La actualización no pasa por Hibernate, así que la cache de segundo nivel no se entera sola
+            entityManagerFactory.getCache().evict(Examen.class);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(ExamenRepository.CONSULTAS_EXAMENES);
+        }
+    }
+
+    private boolean existenColumnasAntiguas(){
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            DatabaseMetaData metaData = conexion.getMetaData();
+            ResultSet columnas = metaData.getColumns(conexion.getCatalog(),null,"examenes","puntos_maximos");
+            try{
+                return columnas.next();
+            }finally {
+                JdbcUtils.closeResultSet(columnas);
+            }
+        });
+    }
+
+    private Double aNumero(String valor){
+        if(valor == null || valor.trim().isEmpty()){
+            return null;
+        }
+        try{
+            return Double.valueOf(valor.trim());
+        }catch (NumberFormatException exception){
+            log.warn("No se pudo convertir el puntaje '{}'",valor);
+            return null;
+        }
+    }
+}
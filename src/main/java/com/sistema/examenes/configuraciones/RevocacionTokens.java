@@ -0,0 +1,157 @@
+package com.sistema.examenes.configuraciones;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sistema.examenes.modelo.RevocacionUsuario;
+import com.sistema.examenes.repositorios.RevocacionUsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Registro en memoria de los tokens que ya no son válidos antes de su expiración.
+// Por usuario (usuario eliminado o deshabilitado, roles modificados) se guarda el momento desde el que se rechazan
+// los tokens emitidos antes; por token (cierre de sesión, rotación del token de refresco) se guarda su jti.
+// Las revocaciones por usuario también se guardan en la base de datos y se recargan al arrancar, porque tras un
+// reinicio los tokens con id y roles se aceptarían sin consultar al usuario.
+// Ninguna entrada hace falta después de que vence el token más largo, por eso todas vencen con él
+@Component
+public class RevocacionTokens {
+
+    @Autowired(required = false)
+    private RevocacionUsuarioRepository revocacionUsuarioRepository;
+
+    private final long duracion;
+
+    private final Cache<Long,Long> revocaciones;
+
+    // El filtro de Bloom responde en tiempo constante que un jti no está revocado, que es el caso de casi todas las
+    // peticiones; el conjunto exacto confirma los positivos para descartar los falsos positivos del filtro
+    private final FiltroBloomPorFranjas filtroJti;
+
+    private final Cache<String,JtiRevocado> jtiRevocados;
+
+    // Solo reusar un token de refresco ya rotado indica que otro lo tiene; un token cerrado solo se rechaza
+    public enum Motivo {
+        ROTACION,
+        CIERRE_DE_SESION
+    }
+
+    public RevocacionTokens(@Value("${examenes.jwt.refresco-minutos:10080}") long duracionMinutos) {
+        this.duracion = TimeUnit.MINUTES.toMillis(duracionMinutos);
+        this.revocaciones = Caffeine.newBuilder()
+                .expireAfterWrite(duracion,TimeUnit.MILLISECONDS)
+                .build();
+        this.filtroJti = new FiltroBloomPorFranjas(duracion,TimeUnit.HOURS.toMillis(1),1 << 16);
+        this.jtiRevocados = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String,JtiRevocado>() {
+                    @Override
+                    public long expireAfterCreate(String jti, JtiRevocado revocado, long ahora) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0,revocado.expiracion - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String jti, JtiRevocado revocado, long ahora, long restante) {
+                        return restante;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String jti, JtiRevocado revocado, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .build();
+    }
+
+    @PostConstruct
+    public void cargar(){
+        if(revocacionUsuarioRepository == null){
+            return;
+        }
+        long vigentesDesde = (System.currentTimeMillis() - duracion) / 1000;
+        revocacionUsuarioRepository.eliminarVencidas(vigentesDesde);
+        for(RevocacionUsuario revocacion : revocacionUsuarioRepository.findByRevocadoEnGreaterThan(vigentesDesde)){
+            revocaciones.put(revocacion.getUsuarioId(),revocacion.getRevocadoEn());
+        }
+    }
+
+    public void revocar(Long usuarioId){
+        if(usuarioId == null){
+            return;
+        }
+        long revocadoEn = System.currentTimeMillis() / 1000;
+        revocaciones.put(usuarioId,revocadoEn);
+        if(revocacionUsuarioRepository != null){
+            revocacionUsuarioRepository.save(new RevocacionUsuario(usuarioId,revocadoEn));
+        }
+    }
+
+    // El claim iat tiene precisión de segundos: un token emitido en el mismo segundo de la revocación también se rechaza
+    public boolean revocado(Long usuarioId, Date emitido){
+        Long revocadoEn = revocaciones.getIfPresent(usuarioId);
+        return revocadoEn != null && (emitido == null || emitido.getTime() / 1000 <= revocadoEn);
+    }
+
+    // Devuelve null si el token no estaba revocado, o el motivo de la revocación anterior, que se conserva,
+    // para que la rotación de un token de refresco sea atómica. Un token sin jti no se puede registrar y se
+    // informa como ya revocado
+    public Motivo revocarToken(String jti, Date expiracion, Motivo motivo){
+        if(jti == null || expiracion == null){
+            return motivo;
+        }
+        long[] hash = hash(jti);
+        filtroJti.agregar(hash[0],hash[1],expiracion.getTime());
+        JtiRevocado anterior = jtiRevocados.asMap().putIfAbsent(jti,new JtiRevocado(expiracion.getTime(),motivo));
+        return anterior != null ? anterior.motivo : null;
+    }
+
+    public boolean tokenRevocado(String jti, Date expiracion){
+        if(jti == null || expiracion == null){
+            return false;
+        }
+        long[] hash = hash(jti);
+        return filtroJti.puedeContener(hash[0],hash[1],expiracion.getTime()) && jtiRevocados.getIfPresent(jti) != null;
+    }
+
+    // Los jti emitidos por JwtUtils son UUID aleatorios; cada mitad se mezcla para no depender de los bits fijos de versión
+    private static long[] hash(String jti){
+        long hash1;
+        long hash2;
+        try{
+            UUID uuid = UUID.fromString(jti);
+            hash1 = uuid.getMostSignificantBits();
+            hash2 = uuid.getLeastSignificantBits();
+        }catch (IllegalArgumentException exception){
+            hash1 = 0xcbf29ce484222325L;
+            hash2 = 0;
+            for(byte b : jti.getBytes(StandardCharsets.UTF_8)){
+                hash1 = (hash1 ^ b) * 0x100000001b3L;
+                hash2 = hash2 * 31 + b;
+            }
+        }
+        return new long[]{mezclar(hash1),mezclar(hash2) | 1};
+    }
+
+    private static long mezclar(long valor){
+        valor = (valor ^ (valor >>> 33)) * 0xff51afd7ed558ccdL;
+        valor = (valor ^ (valor >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return valor ^ (valor >>> 33);
+    }
+
+    private static final class JtiRevocado {
+
+        private final long expiracion;
+        private final Motivo motivo;
+
+        private JtiRevocado(long expiracion, Motivo motivo) {
+            this.expiracion = expiracion;
+            this.motivo = motivo;
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package com.sistema.examenes.controladores;
 
 import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.configuraciones.RevocacionTokens;
 import com.sistema.examenes.excepciones.UsuarioNotFoundException;
+import com.sistema.examenes.modelo.JwtRefreshRequest;
 import com.sistema.examenes.modelo.JwtRequest;
 import com.sistema.examenes.modelo.JwtResponse;
-import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioDetalles;
 import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
@@ -30,6 +36,9 @@ public class AuthenticationController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
     @PostMapping("/generate-token")
     public ResponseEntity<?> generarToken(@RequestBody JwtRequest jwtRequest) throws Exception {
         try{
@@ -41,7 +50,76 @@ public class AuthenticationController {
 
         UserDetails userDetails =  this.userDetailsService.loadUserByUsername(jwtRequest.getUsername());
         String token = this.jwtUtils.generateToken(userDetails);
-        return ResponseEntity.ok(new JwtResponse(token));
+        String refreshToken = this.jwtUtils.generarTokenDeRefresco(userDetails);
+        return ResponseEntity.ok(new JwtResponse(token,refreshToken));
+    }
+
+    // Rota el token de refresco sin volver a verificar la contraseña. Si llega un token de refresco ya rotado,
+    // alguien más lo tiene: se revocan todos los tokens del usuario
+    @PostMapping("/refresh-token")
+    public ResponseEntity<JwtResponse> refrescarToken(@RequestBody JwtRefreshRequest jwtRefreshRequest){
+        Claims claims = leerTokenDeRefresco(jwtRefreshRequest.getRefreshToken());
+        if(claims == null){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Long usuarioId = claims.get(JwtUtils.CLAIM_USUARIO_ID,Long.class);
+        if(this.revocacionTokens.revocado(usuarioId,claims.getIssuedAt())){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        RevocacionTokens.Motivo revocadoAntes = this.revocacionTokens.revocarToken(claims.getId(),claims.getExpiration(),RevocacionTokens.Motivo.ROTACION);
+        if(revocadoAntes != null){
+            // Un token cerrado con la sesión (o un refresco que compite con el cierre) solo se rechaza
+            if(revocadoAntes == RevocacionTokens.Motivo.ROTACION){
+                this.revocacionTokens.revocar(usuarioId);
+            }
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        UserDetails userDetails;
+        try{
+            userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        }catch (UsernameNotFoundException exception){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Un usuario eliminado y registrado de nuevo con el mismo nombre no hereda los tokens del anterior
+        if(!userDetails.isEnabled() || !(userDetails instanceof UsuarioDetalles) || !usuarioId.equals(((UsuarioDetalles) userDetails).getId())){
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(new JwtResponse(this.jwtUtils.generateToken(userDetails),this.jwtUtils.generarTokenDeRefresco(userDetails)));
+    }
+
+    // Cierra la sesión revocando el token de refresco y, si viene en la cabecera, el token de acceso
+    @PostMapping("/revoke-token")
+    public ResponseEntity<Void> revocarToken(@RequestBody JwtRefreshRequest jwtRefreshRequest,
+                                             @RequestHeader(value = "Authorization",required = false) String authorization){
+        Claims claims = leerTokenDeRefresco(jwtRefreshRequest.getRefreshToken());
+        if(claims != null){
+            this.revocacionTokens.revocarToken(claims.getId(),claims.getExpiration(),RevocacionTokens.Motivo.CIERRE_DE_SESION);
+        }
+        if(authorization != null && authorization.startsWith("Bearer ")){
+            try{
+                Claims acceso = this.jwtUtils.validarToken(authorization.substring(7));
+                this.revocacionTokens.revocarToken(acceso.getId(),acceso.getExpiration(),RevocacionTokens.Motivo.CIERRE_DE_SESION);
+            }catch (JwtException | IllegalArgumentException exception){
+                // Un token de acceso inválido o vencido ya no sirve, no hace falta revocarlo
+            }
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private Claims leerTokenDeRefresco(String refreshToken){
+        if(refreshToken == null){
+            return null;
+        }
+        try{
+            Claims claims = this.jwtUtils.validarToken(refreshToken);
+            if(!JwtUtils.TIPO_REFRESCO.equals(claims.get(JwtUtils.CLAIM_TIPO)) || claims.get(JwtUtils.CLAIM_USUARIO_ID) == null || claims.getId() == null){
+                return null;
+            }
+            return claims;
+        }catch (JwtException | IllegalArgumentException exception){
+            return null;
+        }
     }
 
     private void autenticar(String username,String password) throws Exception {
@@ -55,7 +133,7 @@ public class AuthenticationController {
     }
 
     @GetMapping("/actual-usuario")
-    public Usuario obtenerUsuarioActual(Principal principal){
-        return (Usuario) this.userDetailsService.loadUserByUsername(principal.getName());
+    public UsuarioDetalles obtenerUsuarioActual(Principal principal){
+        return (UsuarioDetalles) this.userDetailsService.loadUserByUsername(principal.getName());
     }
 }
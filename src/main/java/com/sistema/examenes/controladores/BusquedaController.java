@@ -0,0 +1,34 @@
+package com.sistema.examenes.controladores;
+
+import com.sistema.examenes.servicios.impl.IndiceBusqueda;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Collections;
+
+@RestController
+@RequestMapping("/busqueda")
+@CrossOrigin("*")
+public class BusquedaController {
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @GetMapping("/")
+    public ResponseEntity<?> buscar(@RequestParam("q") String consulta,
+                                    @RequestParam(required = false) String tipo,
+                                    @RequestParam(required = false) Long desde,
+                                    @RequestParam(required = false) Integer limite) throws IOException {
+        if(tipo != null && !tipo.equals(IndiceBusqueda.PREGUNTA) && !tipo.equals(IndiceBusqueda.EXAMEN)){
+            return ResponseEntity.badRequest().body("Tipo de busqueda invalido");
+        }
+        return ResponseEntity.ok(indiceBusqueda.buscar(consulta,tipo,desde,limite));
+    }
+
+    @PostMapping("/reconstruir")
+    public ResponseEntity<?> reconstruirIndice() throws IOException {
+        return ResponseEntity.ok(Collections.singletonMap("documentos",indiceBusqueda.reconstruir()));
+    }
+}
@@ -2,9 +2,15 @@ package com.sistema.examenes.controladores;
 
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.servicios.CategoriaService;
+import com.sistema.examenes.servicios.ExportacionService;
+import com.sistema.examenes.servicios.impl.CacheRespuestasCatalogo;
+import com.sistema.examenes.servicios.impl.VersionesCatalogo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/categoria")
@@ -14,6 +20,15 @@ public class CategoriaController {
     @Autowired
     private CategoriaService categoriaService;
 
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private VersionesCatalogo versionesCatalogo;
+
+    @Autowired
+    private CacheRespuestasCatalogo cacheRespuestasCatalogo;
+
     @PostMapping("/")
     public ResponseEntity<Categoria> guardarCategoria(@RequestBody Categoria categoria){
         Categoria categoriaGuardada = categoriaService.agregarCategoria(categoria);
@@ -26,8 +41,18 @@ public class CategoriaController {
     }
 
     @GetMapping("/")
-    public ResponseEntity<?> listarCategorias(){
-        return ResponseEntity.ok(categoriaService.obtenerCategorias());
+    public ResponseEntity<byte[]> listarCategorias(@RequestParam(required = false) Long cursor,
+                                              @RequestParam(required = false) Integer limite,
+                                              WebRequest webRequest){
+        String etag = versionesCatalogo.etag(VersionesCatalogo.CATEGORIAS,cursor,limite);
+        String aceptaCodificacion = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if(webRequest.checkNotModified(cacheRespuestasCatalogo.etag(etag,aceptaCodificacion),versionesCatalogo.ultimaModificacion(VersionesCatalogo.CATEGORIAS))){
+            return null;
+        }
+        if(cursor == null && limite == null){
+            return cacheRespuestasCatalogo.responder(etag,aceptaCodificacion,categoriaService::obtenerCategorias);
+        }
+        return cacheRespuestasCatalogo.responder(etag,aceptaCodificacion,() -> categoriaService.obtenerCategorias(cursor,limite));
     }
 
     @PutMapping("/")
@@ -39,4 +64,11 @@ public class CategoriaController {
     public void eliminarCategoria(@PathVariable("categoriaId") Long categoriaId){
         categoriaService.eliminarCategoria(categoriaId);
     }
+
+    @GetMapping("/exportar/{categoriaId}")
+    public ResponseEntity<StreamingResponseBody> exportarPreguntas(@PathVariable("categoriaId") Long categoriaId,
+                                                                   @RequestParam(defaultValue = ExportacionService.JSON) String formato){
+        return RespuestasExportacion.exportar("preguntas-categoria-" + categoriaId,formato,exportacionService.existeCategoria(categoriaId),
+                salida -> exportacionService.exportarPreguntasDeLaCategoria(categoriaId,formato,salida));
+    }
 }
@@ -3,11 +3,18 @@ package com.sistema.examenes.controladores;
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.modelo.Examen;
 import com.sistema.examenes.servicios.ExamenService;
+import com.sistema.examenes.servicios.ExportacionService;
+import com.sistema.examenes.servicios.impl.CacheRespuestasCatalogo;
+import com.sistema.examenes.servicios.impl.VersionesCatalogo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/examen")
@@ -17,6 +24,15 @@ public class ExamenController {
     @Autowired
     private ExamenService examenService;
 
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private VersionesCatalogo versionesCatalogo;
+
+    @Autowired
+    private CacheRespuestasCatalogo cacheRespuestasCatalogo;
+
     @PostMapping("/")
     public ResponseEntity<Examen> guardarExamen(@RequestBody Examen examen){
         return ResponseEntity.ok(examenService.agregarExamen(examen));
@@ -28,8 +44,14 @@ public class ExamenController {
     }
 
     @GetMapping("/")
-    public ResponseEntity<?> listarExamenes(){
-        return ResponseEntity.ok(examenService.obtenerExamenes());
+    public ResponseEntity<?> listarExamenes(@RequestParam(required = false) Long cursor,
+                                            @RequestParam(required = false) Integer limite,
+                                            @RequestParam(required = false) Boolean activo,
+                                            @RequestParam(required = false) Long categoriaId){
+        if(cursor == null && limite == null && activo == null && categoriaId == null){
+            return ResponseEntity.ok(examenService.obtenerExamenes());
+        }
+        return ResponseEntity.ok(examenService.obtenerExamenes(cursor,limite,activo,categoriaId));
     }
 
     @GetMapping("/{examenId}")
@@ -50,14 +72,30 @@ public class ExamenController {
     }
 
     @GetMapping("/activo")
-    public List<Examen> listarExamenesActivos(){
-        return examenService.obtenerExamenesActivos();
+    public ResponseEntity<byte[]> listarExamenesActivos(WebRequest webRequest){
+        return responderCatalogo(webRequest,examenService::obtenerExamenesActivos,"activo");
     }
 
     @GetMapping("/categoria/activo/{categoriaId}")
-    public List<Examen> listarExamenesActivosDeUnaCategoria(@PathVariable("categoriaId") Long categoriaId){
+    public ResponseEntity<byte[]> listarExamenesActivosDeUnaCategoria(@PathVariable("categoriaId") Long categoriaId, WebRequest webRequest){
         Categoria categoria = new Categoria();
         categoria.setCategoriaId(categoriaId);
-        return examenService.obtenerExamenesActivosDeUnaCategoria(categoria);
+        return responderCatalogo(webRequest,() -> examenService.obtenerExamenesActivosDeUnaCategoria(categoria),"activo",categoriaId);
+    }
+
+    @GetMapping("/exportar/resultados/{examenId}")
+    public ResponseEntity<StreamingResponseBody> exportarResultados(@PathVariable("examenId") Long examenId,
+                                                                    @RequestParam(defaultValue = ExportacionService.JSON) String formato){
+        return RespuestasExportacion.exportar("resultados-examen-" + examenId,formato,exportacionService.existeExamen(examenId),
+                salida -> exportacionService.exportarResultadosDelExamen(examenId,formato,salida));
+    }
+
+    private ResponseEntity<byte[]> responderCatalogo(WebRequest webRequest, Supplier<?> contenido, Object... partes){
+        String etag = versionesCatalogo.etag(VersionesCatalogo.EXAMENES,partes);
+        String aceptaCodificacion = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if(webRequest.checkNotModified(cacheRespuestasCatalogo.etag(etag,aceptaCodificacion),versionesCatalogo.ultimaModificacion(VersionesCatalogo.EXAMENES))){
+            return null;
+        }
+        return cacheRespuestasCatalogo.responder(etag,aceptaCodificacion,contenido);
     }
 }
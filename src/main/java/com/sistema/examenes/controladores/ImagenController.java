@@ -0,0 +1,170 @@
+package com.sistema.examenes.controladores;
+
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.servicios.AlmacenImagenesService;
+import com.sistema.examenes.servicios.UsuarioService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.Principal;
+import java.util.Collections;
+
+@RestController
+@RequestMapping("/imagen")
+@CrossOrigin("*")
+public class ImagenController {
+
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private AlmacenImagenesService almacenImagenesService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @PostMapping("/")
+    public ResponseEntity<?> subirImagen(@RequestParam("archivo") MultipartFile archivo) throws IOException {
+        try(InputStream contenido = archivo.getInputStream()){
+            return ResponseEntity.ok(Collections.singletonMap("imagen",almacenImagenesService.guardarImagen(contenido)));
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/perfil")
+    public ResponseEntity<?> subirImagenDePerfil(@RequestParam("archivo") MultipartFile archivo, Principal principal) throws IOException {
+        String nombre;
+        try(InputStream contenido = archivo.getInputStream()){
+            nombre = almacenImagenesService.guardarImagen(contenido);
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        Usuario usuario = usuarioService.actualizarPerfil(principal.getName(),nombre);
+        return ResponseEntity.ok(Collections.singletonMap("imagen",usuario.getPerfil()));
+    }
+
+    @GetMapping("/{nombre:.+}")
+    public void servirImagen(@PathVariable("nombre") String nombre, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path imagen = almacenImagenesService.ubicarImagen(nombre);
+        if(imagen == null){
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        String etag = "\"" + nombre.substring(0,nombre.indexOf('.')) + "\"";
+        response.setHeader(HttpHeaders.ETAG,etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL,"public, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES,"bytes");
+        if(coincideEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH),etag)){
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long tamano = Files.size(imagen);
+        long inicio = 0;
+        long fin = tamano - 1;
+        String rango = request.getHeader(HttpHeaders.RANGE);
+        String siRango = request.getHeader(HttpHeaders.IF_RANGE);
+        if(rango != null && (siRango == null || siRango.equals(etag))){
+            long[] limites = leerRango(rango,tamano);
+            if(limites == null){
+                response.setHeader(HttpHeaders.CONTENT_RANGE,"bytes */" + tamano);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            if(limites.length == 2){
+                inicio = limites[0];
+                fin = limites[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE,"bytes " + inicio + "-" + fin + "/" + tamano);
+            }
+        }
+
+        response.setContentType(tipoDeContenido(nombre));
+        response.setContentLengthLong(fin - inicio + 1);
+        if(Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))){
+            request.setAttribute(SENDFILE_ARCHIVO,imagen.toString());
+            request.setAttribute(SENDFILE_INICIO,inicio);
+            request.setAttribute(SENDFILE_FIN,fin + 1);
+            return;
+        }
+        try(FileChannel canal = FileChannel.open(imagen,StandardOpenOption.READ)){
+            WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+            long posicion = inicio;
+            while(posicion <= fin){
+                posicion += canal.transferTo(posicion,fin + 1 - posicion,salida);
+            }
+        }
+    }
+
+    private boolean coincideEtag(String siNoCoincide, String etag){
+        if(siNoCoincide == null){
+            return false;
+        }
+        for(String candidato : siNoCoincide.split(",")){
+            String valor = candidato.trim();
+            if(valor.equals("*") || valor.equals(etag) || valor.equals("W/" + etag)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long[] leerRango(String rango, long tamano){
+        if(!rango.startsWith("bytes=") || rango.indexOf(',') >= 0){
+            return new long[0];
+        }
+        String especificacion = rango.substring("bytes=".length()).trim();
+        int guion = especificacion.indexOf('-');
+        if(guion < 0){
+            return new long[0];
+        }
+        try {
+            long inicio;
+            long fin;
+            if(guion == 0){
+                long sufijo = Long.parseLong(especificacion.substring(1));
+                if(sufijo <= 0){
+                    return null;
+                }
+                inicio = Math.max(0,tamano - sufijo);
+                fin = tamano - 1;
+            }else{
+                inicio = Long.parseLong(especificacion.substring(0,guion));
+                fin = guion == especificacion.length() - 1 ? tamano - 1 : Math.min(tamano - 1,Long.parseLong(especificacion.substring(guion + 1)));
+            }
+            if(inicio >= tamano || inicio > fin){
+                return null;
+            }
+            return new long[]{inicio,fin};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private String tipoDeContenido(String nombre){
+        switch (nombre.substring(nombre.indexOf('.') + 1)){
+            case "png": return "image/png";
+            case "jpg": return "image/jpeg";
+            case "gif": return "image/gif";
+            default: return "image/webp";
+        }
+    }
+}
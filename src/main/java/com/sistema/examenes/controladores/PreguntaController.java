@@ -1,13 +1,32 @@
 package com.sistema.examenes.controladores;
 
+import com.sistema.examenes.modelo.EvaluacionSesion;
 import com.sistema.examenes.modelo.Examen;
 import com.sistema.examenes.modelo.Pregunta;
-import com.sistema.examenes.servicios.ExamenService;
+import com.sistema.examenes.modelo.ResultadoEvaluacion;
+import com.sistema.examenes.modelo.ResultadoImportacion;
+import com.sistema.examenes.modelo.SesionExamen;
+import com.sistema.examenes.modelo.TicketEvaluacion;
+import com.sistema.examenes.servicios.EvaluacionService;
+import com.sistema.examenes.servicios.ExportacionService;
+import com.sistema.examenes.servicios.ImportacionPreguntasService;
+import com.sistema.examenes.servicios.IntentoService;
 import com.sistema.examenes.servicios.PreguntaService;
+import com.sistema.examenes.servicios.SesionExamenService;
+import com.sistema.examenes.servicios.impl.ColaEvaluaciones;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
 import java.util.*;
 
 @RestController
@@ -15,11 +34,28 @@ import java.util.*;
 @CrossOrigin("*")
 public class PreguntaController {
 
+    private static final String CABECERA_SESION_EXAMEN = "X-Sesion-Examen";
+
     @Autowired
     private PreguntaService preguntaService;
 
     @Autowired
-    private ExamenService examenService;
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private EvaluacionService evaluacionService;
+
+    @Autowired
+    private ColaEvaluaciones colaEvaluaciones;
+
+    @Autowired
+    private IntentoService intentoService;
+
+    @Autowired
+    private SesionExamenService sesionExamenService;
+
+    @Autowired
+    private ImportacionPreguntasService importacionPreguntasService;
 
     @PostMapping("/")
     public ResponseEntity<Pregunta> guardarPregunta(@RequestBody Pregunta pregunta){
@@ -32,17 +68,13 @@ public class PreguntaController {
     }
 
     @GetMapping("/examen/{examenId}")
-    public ResponseEntity<?> listarPreguntasDelExamen(@PathVariable("examenId") Long examenId){
-        Examen examen = examenService.obtenerExamen(examenId);
-        Set<Pregunta> preguntas = examen.getPreguntas();
-
-        List examenes = new ArrayList(preguntas);
-        if(examenes.size() > Integer.parseInt(examen.getNumeroDePreguntas())){
-            examenes = examenes.subList(0,Integer.parseInt(examen.getNumeroDePreguntas() + 1));
-        }
-
-        Collections.shuffle(examenes);
-        return ResponseEntity.ok(examenes);
+    @CrossOrigin(exposedHeaders = CABECERA_SESION_EXAMEN)
+    public ResponseEntity<byte[]> listarPreguntasDelExamen(@PathVariable("examenId") Long examenId, Principal principal){
+        SesionExamen sesionExamen = sesionExamenService.iniciarSesion(examenId,principal.getName());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(CABECERA_SESION_EXAMEN,sesionExamenService.emitirToken(sesionExamen))
+                .body(sesionExamen.getPreguntasJson());
     }
 
     @GetMapping("/{preguntaId}")
@@ -56,7 +88,12 @@ public class PreguntaController {
     }
 
     @GetMapping("/examen/todos/{examenId}")
-    public ResponseEntity<?> listarPreguntaDelExamenComoAdministrador(@PathVariable("examenId") Long examenId){
+    public ResponseEntity<?> listarPreguntaDelExamenComoAdministrador(@PathVariable("examenId") Long examenId,
+                                                                      @RequestParam(required = false) Long cursor,
+                                                                      @RequestParam(required = false) Integer limite){
+        if(cursor != null || limite != null){
+            return ResponseEntity.ok(preguntaService.obtenerPreguntasDelExamen(examenId,cursor,limite));
+        }
         Examen examen = new Examen();
         examen.setExamenId(examenId);
         Set<Pregunta> preguntas = preguntaService.obtenerPreguntasDelExamen(examen);
@@ -64,27 +101,70 @@ public class PreguntaController {
     }
 
     @PostMapping("/evaluar-examen")
-    public ResponseEntity<?> evaluarExamen(@RequestBody List<Pregunta> preguntas){
-        double puntosMaximos = 0;
-        Integer respuestasCorrectas = 0;
-        Integer intentos = 0;
-
-        for(Pregunta p : preguntas){
-            Pregunta pregunta = this.preguntaService.listarPregunta(p.getPreguntaId());
-            if(pregunta.getRespuesta().equals(p.getRespuestaDada())){
-                respuestasCorrectas ++;
-                double puntos = Double.parseDouble(preguntas.get(0).getExamen().getPuntosMaximos())/preguntas.size();
-                puntosMaximos += puntos;
-            }
-            if(p.getRespuestaDada() != null){
-                intentos ++;
-            }
+    public ResponseEntity<?> evaluarExamen(@RequestBody List<Pregunta> preguntas, Principal principal){
+        ResultadoEvaluacion resultado = evaluacionService.evaluarExamen(preguntas);
+        intentoService.registrarIntento(principal.getName(),resultado);
+        return ResponseEntity.ok(resultado);
+    }
+
+    @PostMapping("/evaluar-sesion")
+    public ResponseEntity<?> evaluarSesion(@RequestBody EvaluacionSesion evaluacionSesion, Principal principal){
+        SesionExamen sesionExamen;
+        try{
+            sesionExamen = sesionExamenService.validarToken(evaluacionSesion.getToken());
+        }catch (JwtException | IllegalArgumentException exception){
+            return ResponseEntity.badRequest().body("Sesion de examen invalida o expirada");
+        }
+        if(!principal.getName().equals(sesionExamen.getUsername())){
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("La sesion de examen pertenece a otro usuario");
+        }
+        ResultadoEvaluacion resultado = evaluacionService.evaluarSesion(sesionExamen,evaluacionSesion.getRespuestas());
+        intentoService.registrarIntento(principal.getName(),resultado);
+        return ResponseEntity.ok(resultado);
+    }
+
+    @PostMapping("/evaluar-examen/encolar")
+    public ResponseEntity<?> encolarEvaluacion(@RequestBody List<Pregunta> preguntas, Principal principal){
+        TicketEvaluacion ticket = colaEvaluaciones.encolar(principal.getName(),preguntas);
+        if(ticket == null){
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER,String.valueOf(colaEvaluaciones.getReintentarEnSegundos()))
+                    .build();
         }
+        return ResponseEntity.accepted().body(ticket);
+    }
+
+    @GetMapping("/evaluar-examen/ticket/{ticket}")
+    public ResponseEntity<TicketEvaluacion> consultarEvaluacion(@PathVariable("ticket") String ticket, Principal principal){
+        TicketEvaluacion ticketEvaluacion = colaEvaluaciones.consultar(ticket,principal.getName());
+        if(ticketEvaluacion == null){
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticketEvaluacion);
+    }
+
+    @PostMapping(value = "/evaluar-examen/masivo/{examenId}",consumes = {"text/csv","application/x-ndjson"},produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> evaluarExamenMasivo(@PathVariable("examenId") Long examenId, HttpServletRequest request) throws IOException {
+        boolean csv = request.getContentType().startsWith("text/csv");
+        InputStream entrada = request.getInputStream();
+        StreamingResponseBody resultados = salida -> evaluacionService.evaluarEnLote(examenId,entrada,csv,salida);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(resultados);
+    }
+
+    @PostMapping(value = "/importar/{examenId}",consumes = {"text/csv","application/json","application/x-ndjson"})
+    public ResponseEntity<ResultadoImportacion> importarPreguntas(@PathVariable("examenId") Long examenId, HttpServletRequest request) throws IOException {
+        boolean csv = request.getContentType().startsWith("text/csv");
+        ResultadoImportacion resultado = importacionPreguntasService.importar(examenId,request.getInputStream(),csv);
+        if(resultado == null){
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(resultado);
+    }
 
-        Map<String,Object> respuestas = new HashMap<>();
-        respuestas.put("puntosMaximos",puntosMaximos);
-        respuestas.put("respuestasCorrectas",respuestasCorrectas);
-        respuestas.put("intentos",intentos);
-        return ResponseEntity.ok(respuestas);
+    @GetMapping("/exportar/{examenId}")
+    public ResponseEntity<StreamingResponseBody> exportarPreguntas(@PathVariable("examenId") Long examenId,
+                                                                   @RequestParam(defaultValue = ExportacionService.JSON) String formato){
+        return RespuestasExportacion.exportar("preguntas-examen-" + examenId,formato,exportacionService.existeExamen(examenId),
+                salida -> exportacionService.exportarPreguntasDelExamen(examenId,formato,salida));
     }
 }
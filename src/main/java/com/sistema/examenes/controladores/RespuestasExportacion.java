@@ -0,0 +1,40 @@
+package com.sistema.examenes.controladores;
+
+import com.sistema.examenes.servicios.ExportacionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+class RespuestasExportacion {
+
+    private RespuestasExportacion(){
+    }
+
+    static ResponseEntity<StreamingResponseBody> exportar(String nombre, String formato, boolean existe, StreamingResponseBody cuerpo){
+        MediaType tipo = tipo(formato);
+        if(tipo == null){
+            return ResponseEntity.badRequest().build();
+        }
+        if(!existe){
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION,"attachment; filename=\"" + nombre + "." + (ExportacionService.NDJSON.equals(formato) ? "ndjson" : formato) + "\"")
+                .body(cuerpo);
+    }
+
+    private static MediaType tipo(String formato){
+        if(ExportacionService.JSON.equals(formato)){
+            return MediaType.APPLICATION_JSON;
+        }
+        if(ExportacionService.NDJSON.equals(formato)){
+            return MediaType.parseMediaType("application/x-ndjson");
+        }
+        if(ExportacionService.CSV.equals(formato)){
+            return MediaType.parseMediaType("text/csv;charset=UTF-8");
+        }
+        return null;
+    }
+}
@@ -1,12 +1,17 @@
 package com.sistema.examenes.modelo;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,region = "categorias")
 @Table(name = "categorias")
 public class Categoria {
 
@@ -22,6 +27,13 @@ public class Categoria {
     @JsonIgnore
     private Set<Examen> examenes = new LinkedHashSet<>();
 
+    private Long version;
+
+    private LocalDateTime actualizado;
+
+    @Transient
+    private Long examenesActivos;
+
     public Long getCategoriaId() {
         return categoriaId;
     }
@@ -54,6 +66,37 @@ public class Categoria {
         this.examenes = examenes;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getActualizado() {
+        return actualizado;
+    }
+
+    public void setActualizado(LocalDateTime actualizado) {
+        this.actualizado = actualizado;
+    }
+
+    public Long getExamenesActivos() {
+        return examenesActivos;
+    }
+
+    public void setExamenesActivos(Long examenesActivos) {
+        this.examenesActivos = examenesActivos;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void registrarModificacion() {
+        version = version == null ? 0L : version + 1;
+        actualizado = LocalDateTime.now();
+    }
+
     public Categoria(){
 
     }
@@ -0,0 +1,84 @@
+package com.sistema.examenes.modelo;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class ClaveRespuestas {
+
+    private final long examenId;
+    private final long[] preguntaIds;
+    private final byte[] opcionesCorrectas;
+    private final String[] respuestas;
+    private final double[] puntos;
+
+    private ClaveRespuestas(long examenId, long[] preguntaIds, byte[] opcionesCorrectas, String[] respuestas, double[] puntos) {
+        this.examenId = examenId;
+        this.preguntaIds = preguntaIds;
+        this.opcionesCorrectas = opcionesCorrectas;
+        this.respuestas = respuestas;
+        this.puntos = puntos;
+    }
+
+    public static ClaveRespuestas compilar(long examenId, List<RespuestaCorrecta> respuestasCorrectas){
+        RespuestaCorrecta[] ordenadas = respuestasCorrectas.toArray(new RespuestaCorrecta[0]);
+        Arrays.sort(ordenadas,(a,b) -> Long.compare(a.getPreguntaId(),b.getPreguntaId()));
+
+        long[] preguntaIds = new long[ordenadas.length];
+        byte[] opcionesCorrectas = new byte[ordenadas.length];
+        String[] respuestas = new String[ordenadas.length];
+        double[] puntos = new double[ordenadas.length];
+
+        for(int i = 0; i < ordenadas.length; i++){
+            RespuestaCorrecta r = ordenadas[i];
+            preguntaIds[i] = r.getPreguntaId();
+            respuestas[i] = r.getRespuesta();
+            opcionesCorrectas[i] = indiceDeOpcion(r);
+            puntos[i] = puntosDe(r);
+        }
+        return new ClaveRespuestas(examenId,preguntaIds,opcionesCorrectas,respuestas,puntos);
+    }
+
+    private static double puntosDe(RespuestaCorrecta r){
+        if(r.getPuntos() != null){
+            return r.getPuntos();
+        }
+        double puntosPorPregunta = r.getPuntosPorPregunta() != null ? r.getPuntosPorPregunta() : 0;
+        return r.getPeso() != null ? r.getPeso() * puntosPorPregunta : puntosPorPregunta;
+    }
+
+    private static byte indiceDeOpcion(RespuestaCorrecta r){
+        String respuesta = r.getRespuesta();
+        if(respuesta == null){
+            return 0;
+        }
+        if(respuesta.equals(r.getOpcion1())) return 1;
+        if(respuesta.equals(r.getOpcion2())) return 2;
+        if(respuesta.equals(r.getOpcion3())) return 3;
+        if(respuesta.equals(r.getOpcion4())) return 4;
+        return 0;
+    }
+
+    public int indiceDe(long preguntaId){
+        return Arrays.binarySearch(preguntaIds,preguntaId);
+    }
+
+    public boolean esCorrecta(int indice, String respuestaDada){
+        return indice >= 0 && respuestas[indice] != null && respuestas[indice].equals(respuestaDada);
+    }
+
+    public boolean esCorrecta(int indice, int opcionDada){
+        return indice >= 0 && opcionDada > 0 && opcionesCorrectas[indice] == opcionDada;
+    }
+
+    public long getExamenId() {
+        return examenId;
+    }
+
+    public int getCantidadDePreguntas() {
+        return preguntaIds.length;
+    }
+
+    public double getPuntos(int indice) {
+        return puntos[indice];
+    }
+}
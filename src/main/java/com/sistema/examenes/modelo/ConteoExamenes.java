@@ -0,0 +1,8 @@
+package com.sistema.examenes.modelo;
+
+public interface ConteoExamenes {
+
+    Long getCategoriaId();
+
+    Long getCantidad();
+}
@@ -0,0 +1,32 @@
+package com.sistema.examenes.modelo;
+
+public class ErrorImportacion {
+
+    private long fila;
+    private String error;
+
+    public ErrorImportacion(){
+
+    }
+
+    public ErrorImportacion(long fila, String error) {
+        this.fila = fila;
+        this.error = error;
+    }
+
+    public long getFila() {
+        return fila;
+    }
+
+    public void setFila(long fila) {
+        this.fila = fila;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
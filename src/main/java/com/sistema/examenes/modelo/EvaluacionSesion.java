@@ -0,0 +1,32 @@
+package com.sistema.examenes.modelo;
+
+public class EvaluacionSesion {
+
+    private String token;
+    private int[] respuestas;
+
+    public EvaluacionSesion(){
+
+    }
+
+    public EvaluacionSesion(String token, int[] respuestas) {
+        this.token = token;
+        this.respuestas = respuestas;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public int[] getRespuestas() {
+        return respuestas;
+    }
+
+    public void setRespuestas(int[] respuestas) {
+        this.respuestas = respuestas;
+    }
+}
@@ -1,13 +1,20 @@
 package com.sistema.examenes.modelo;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "examenes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,region = "examenes")
+@Table(name = "examenes", indexes = {
+        @Index(name = "idx_examenes_activo", columnList = "activo"),
+        @Index(name = "idx_examenes_categoria_activo", columnList = "categoria_categoria_id, activo")})
 public class Examen {
 
     @Id
@@ -16,8 +23,14 @@ public class Examen {
 
     private String titulo;
     private String descripcion;
-    private String puntosMaximos;
-    private String numeroDePreguntas;
+    @Column(name = "puntaje_maximo")
+    private Double puntosMaximos;
+
+    @Column(name = "cantidad_preguntas")
+    private Integer numeroDePreguntas;
+
+    private Double puntosPorPregunta;
+
     private boolean activo = false;
 
     @ManyToOne(fetch = FetchType.EAGER)
@@ -27,6 +40,10 @@ public class Examen {
     @JsonIgnore
     private Set<Pregunta> preguntas = new HashSet<>();
 
+    private Long version;
+
+    private LocalDateTime actualizado;
+
     public Long getExamenId() {
         return examenId;
     }
@@ -51,22 +68,30 @@ public class Examen {
         this.descripcion = descripcion;
     }
 
-    public String getPuntosMaximos() {
+    public Double getPuntosMaximos() {
         return puntosMaximos;
     }
 
-    public void setPuntosMaximos(String puntosMaximos) {
+    public void setPuntosMaximos(Double puntosMaximos) {
         this.puntosMaximos = puntosMaximos;
     }
 
-    public String getNumeroDePreguntas() {
+    public Integer getNumeroDePreguntas() {
         return numeroDePreguntas;
     }
 
-    public void setNumeroDePreguntas(String numeroDePreguntas) {
+    public void setNumeroDePreguntas(Integer numeroDePreguntas) {
         this.numeroDePreguntas = numeroDePreguntas;
     }
 
+    public Double getPuntosPorPregunta() {
+        return puntosPorPregunta;
+    }
+
+    public void setPuntosPorPregunta(Double puntosPorPregunta) {
+        this.puntosPorPregunta = puntosPorPregunta;
+    }
+
     public boolean isActivo() {
         return activo;
     }
@@ -91,6 +116,29 @@ public class Examen {
         this.preguntas = preguntas;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getActualizado() {
+        return actualizado;
+    }
+
+    public void setActualizado(LocalDateTime actualizado) {
+        this.actualizado = actualizado;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void registrarModificacion() {
+        version = version == null ? 0L : version + 1;
+        actualizado = LocalDateTime.now();
+    }
+
     public Examen() {
     }
 }
@@ -0,0 +1,89 @@
+package com.sistema.examenes.modelo;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "intentos", indexes = @Index(name = "idx_intentos_examen", columnList = "examenId"))
+public class Intento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long intentoId;
+
+    private String username;
+    private Long examenId;
+    private double puntosMaximos;
+    private int respuestasCorrectas;
+    private int intentos;
+    private LocalDateTime fecha;
+
+    public Intento(){
+
+    }
+
+    public Intento(String username, Long examenId, double puntosMaximos, int respuestasCorrectas, int intentos, LocalDateTime fecha) {
+        this.username = username;
+        this.examenId = examenId;
+        this.puntosMaximos = puntosMaximos;
+        this.respuestasCorrectas = respuestasCorrectas;
+        this.intentos = intentos;
+        this.fecha = fecha;
+    }
+
+    public Long getIntentoId() {
+        return intentoId;
+    }
+
+    public void setIntentoId(Long intentoId) {
+        this.intentoId = intentoId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getExamenId() {
+        return examenId;
+    }
+
+    public void setExamenId(Long examenId) {
+        this.examenId = examenId;
+    }
+
+    public double getPuntosMaximos() {
+        return puntosMaximos;
+    }
+
+    public void setPuntosMaximos(double puntosMaximos) {
+        this.puntosMaximos = puntosMaximos;
+    }
+
+    public int getRespuestasCorrectas() {
+        return respuestasCorrectas;
+    }
+
+    public void setRespuestasCorrectas(int respuestasCorrectas) {
+        this.respuestasCorrectas = respuestasCorrectas;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(int intentos) {
+        this.intentos = intentos;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+}
@@ -0,0 +1,20 @@
+package com.sistema.examenes.modelo;
+
+import java.time.LocalDateTime;
+
+public interface IntentoExportado {
+
+    Long getIntentoId();
+
+    String getUsername();
+
+    Long getExamenId();
+
+    double getPuntosMaximos();
+
+    int getRespuestasCorrectas();
+
+    int getIntentos();
+
+    LocalDateTime getFecha();
+}
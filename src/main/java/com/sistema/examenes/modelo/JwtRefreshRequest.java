@@ -0,0 +1,22 @@
+package com.sistema.examenes.modelo;
+
+public class JwtRefreshRequest {
+
+    private String refreshToken;
+
+    public JwtRefreshRequest(){
+
+    }
+
+    public JwtRefreshRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
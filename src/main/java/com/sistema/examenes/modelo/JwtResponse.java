@@ -4,10 +4,17 @@ public class JwtResponse {
 
     private String token;
 
+    private String refreshToken;
+
     public JwtResponse(String token) {
         this.token = token;
     }
 
+    public JwtResponse(String token, String refreshToken) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+    }
+
     public JwtResponse() {
     }
 
@@ -18,4 +25,12 @@ public class JwtResponse {
     public void setToken(String token) {
         this.token = token;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
@@ -0,0 +1,54 @@
+package com.sistema.examenes.modelo;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class Pagina<T> {
+
+    private List<T> elementos;
+    private Long siguienteCursor;
+
+    public Pagina(){
+
+    }
+
+    public Pagina(List<T> elementos, Long siguienteCursor) {
+        this.elementos = elementos;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public static <T> Pagina<T> de(List<T> filas, int limite, Function<T,Long> clave){
+        if(filas.size() <= limite){
+            return new Pagina<>(filas,null);
+        }
+        List<T> elementos = filas.subList(0,limite);
+        return new Pagina<>(elementos,clave.apply(elementos.get(limite - 1)));
+    }
+
+    public static int limitar(Integer limite, int limiteMaximo){
+        if(limite == null || limite > limiteMaximo){
+            return limiteMaximo;
+        }
+        return Math.max(limite,1);
+    }
+
+    public static long cursorInicial(Long cursor){
+        return cursor != null ? cursor : 0L;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    public void setElementos(List<T> elementos) {
+        this.elementos = elementos;
+    }
+
+    public Long getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(Long siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+}
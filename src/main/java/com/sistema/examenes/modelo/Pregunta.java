@@ -23,6 +23,9 @@ public class Pregunta {
 
     private String respuesta;
 
+    private Double peso;
+    private Double puntos;
+
     @ManyToOne(fetch = FetchType.EAGER)
     private Examen examen;
 
@@ -106,6 +109,22 @@ public class Pregunta {
         this.respuesta = respuesta;
     }
 
+    public Double getPeso() {
+        return peso;
+    }
+
+    public void setPeso(Double peso) {
+        this.peso = peso;
+    }
+
+    public Double getPuntos() {
+        return puntos;
+    }
+
+    public void setPuntos(Double puntos) {
+        this.puntos = puntos;
+    }
+
     public Pregunta(){
 
     }
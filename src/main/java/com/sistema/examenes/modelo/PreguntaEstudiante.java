@@ -0,0 +1,18 @@
+package com.sistema.examenes.modelo;
+
+public interface PreguntaEstudiante {
+
+    Long getPreguntaId();
+
+    String getContenido();
+
+    String getImagen();
+
+    String getOpcion1();
+
+    String getOpcion2();
+
+    String getOpcion3();
+
+    String getOpcion4();
+}
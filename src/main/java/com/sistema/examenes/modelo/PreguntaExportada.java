@@ -0,0 +1,26 @@
+package com.sistema.examenes.modelo;
+
+public interface PreguntaExportada {
+
+    Long getPreguntaId();
+
+    Long getExamenId();
+
+    String getContenido();
+
+    String getImagen();
+
+    String getOpcion1();
+
+    String getOpcion2();
+
+    String getOpcion3();
+
+    String getOpcion4();
+
+    String getRespuesta();
+
+    Double getPeso();
+
+    Double getPuntos();
+}
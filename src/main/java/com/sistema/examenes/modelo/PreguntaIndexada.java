@@ -0,0 +1,6 @@
+package com.sistema.examenes.modelo;
+
+public interface PreguntaIndexada extends PreguntaEstudiante {
+
+    Long getExamenId();
+}
@@ -0,0 +1,24 @@
+package com.sistema.examenes.modelo;
+
+public interface RespuestaCorrecta {
+
+    Long getPreguntaId();
+
+    String getOpcion1();
+
+    String getOpcion2();
+
+    String getOpcion3();
+
+    String getOpcion4();
+
+    String getRespuesta();
+
+    Long getExamenId();
+
+    Double getPeso();
+
+    Double getPuntos();
+
+    Double getPuntosPorPregunta();
+}
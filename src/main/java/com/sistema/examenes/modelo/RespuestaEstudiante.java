@@ -0,0 +1,42 @@
+package com.sistema.examenes.modelo;
+
+public class RespuestaEstudiante {
+
+    private String estudiante;
+    private Long preguntaId;
+    private String respuestaDada;
+
+    public RespuestaEstudiante(){
+
+    }
+
+    public RespuestaEstudiante(String estudiante, Long preguntaId, String respuestaDada) {
+        this.estudiante = estudiante;
+        this.preguntaId = preguntaId;
+        this.respuestaDada = respuestaDada;
+    }
+
+    public String getEstudiante() {
+        return estudiante;
+    }
+
+    public void setEstudiante(String estudiante) {
+        this.estudiante = estudiante;
+    }
+
+    public Long getPreguntaId() {
+        return preguntaId;
+    }
+
+    public void setPreguntaId(Long preguntaId) {
+        this.preguntaId = preguntaId;
+    }
+
+    public String getRespuestaDada() {
+        return respuestaDada;
+    }
+
+    public void setRespuestaDada(String respuestaDada) {
+        this.respuestaDada = respuestaDada;
+    }
+}
@@ -0,0 +1,62 @@
+package com.sistema.examenes.modelo;
+
+public class ResultadoBusqueda {
+
+    private String tipo;
+    private Long id;
+    private Long examenId;
+    private String titulo;
+    private float puntaje;
+
+    public ResultadoBusqueda(){
+
+    }
+
+    public ResultadoBusqueda(String tipo, Long id, Long examenId, String titulo, float puntaje) {
+        this.tipo = tipo;
+        this.id = id;
+        this.examenId = examenId;
+        this.titulo = titulo;
+        this.puntaje = puntaje;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getExamenId() {
+        return examenId;
+    }
+
+    public void setExamenId(Long examenId) {
+        this.examenId = examenId;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public float getPuntaje() {
+        return puntaje;
+    }
+
+    public void setPuntaje(float puntaje) {
+        this.puntaje = puntaje;
+    }
+}
@@ -0,0 +1,23 @@
+package com.sistema.examenes.modelo;
+
+public class ResultadoEstudiante extends ResultadoEvaluacion {
+
+    private String estudiante;
+
+    public ResultadoEstudiante(){
+
+    }
+
+    public ResultadoEstudiante(String estudiante, Long examenId, double puntosMaximos, int respuestasCorrectas, int intentos) {
+        super(examenId,puntosMaximos,respuestasCorrectas,intentos);
+        this.estudiante = estudiante;
+    }
+
+    public String getEstudiante() {
+        return estudiante;
+    }
+
+    public void setEstudiante(String estudiante) {
+        this.estudiante = estudiante;
+    }
+}
@@ -0,0 +1,52 @@
+package com.sistema.examenes.modelo;
+
+public class ResultadoEvaluacion {
+
+    private Long examenId;
+    private double puntosMaximos;
+    private int respuestasCorrectas;
+    private int intentos;
+
+    public ResultadoEvaluacion(){
+
+    }
+
+    public ResultadoEvaluacion(Long examenId, double puntosMaximos, int respuestasCorrectas, int intentos) {
+        this.examenId = examenId;
+        this.puntosMaximos = puntosMaximos;
+        this.respuestasCorrectas = respuestasCorrectas;
+        this.intentos = intentos;
+    }
+
+    public Long getExamenId() {
+        return examenId;
+    }
+
+    public void setExamenId(Long examenId) {
+        this.examenId = examenId;
+    }
+
+    public double getPuntosMaximos() {
+        return puntosMaximos;
+    }
+
+    public void setPuntosMaximos(double puntosMaximos) {
+        this.puntosMaximos = puntosMaximos;
+    }
+
+    public int getRespuestasCorrectas() {
+        return respuestasCorrectas;
+    }
+
+    public void setRespuestasCorrectas(int respuestasCorrectas) {
+        this.respuestasCorrectas = respuestasCorrectas;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(int intentos) {
+        this.intentos = intentos;
+    }
+}
@@ -0,0 +1,72 @@
+package com.sistema.examenes.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultadoImportacion {
+
+    private Long examenId;
+    private long importadas;
+    private long rechazadas;
+    private long milisegundos;
+    private List<ErrorImportacion> errores = new ArrayList<>();
+
+    public ResultadoImportacion(){
+
+    }
+
+    public ResultadoImportacion(Long examenId) {
+        this.examenId = examenId;
+    }
+
+    public void sumarImportadas(int cantidad){
+        importadas += cantidad;
+    }
+
+    public void rechazar(long fila, String error, int maximoErrores){
+        rechazadas ++;
+        if(errores.size() < maximoErrores){
+            errores.add(new ErrorImportacion(fila,error));
+        }
+    }
+
+    public Long getExamenId() {
+        return examenId;
+    }
+
+    public void setExamenId(Long examenId) {
+        this.examenId = examenId;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public void setImportadas(long importadas) {
+        this.importadas = importadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public void setRechazadas(long rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+
+    public List<ErrorImportacion> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(List<ErrorImportacion> errores) {
+        this.errores = errores;
+    }
+}
@@ -0,0 +1,40 @@
+package com.sistema.examenes.modelo;
+
+import javax.persistence.*;
+
+// Momento, en segundos desde la época, desde el que se rechazan los tokens emitidos antes para el usuario.
+// No referencia a usuarios porque debe sobrevivir a la eliminación del usuario
+@Entity
+@Table(name = "revocaciones_usuario")
+public class RevocacionUsuario {
+
+    @Id
+    private Long usuarioId;
+
+    private long revocadoEn;
+
+    public RevocacionUsuario(){
+
+    }
+
+    public RevocacionUsuario(Long usuarioId, long revocadoEn) {
+        this.usuarioId = usuarioId;
+        this.revocadoEn = revocadoEn;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public long getRevocadoEn() {
+        return revocadoEn;
+    }
+
+    public void setRevocadoEn(long revocadoEn) {
+        this.revocadoEn = revocadoEn;
+    }
+}
@@ -1,10 +1,15 @@
 package com.sistema.examenes.modelo;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,region = "roles")
 @Table(name = "roles")
 public class Rol {
 
@@ -0,0 +1,109 @@
+package com.sistema.examenes.modelo;
+
+import java.util.Date;
+
+public class SesionExamen {
+
+    private static final int[][] PERMUTACIONES = generarPermutaciones();
+
+    private Long examenId;
+    private String username;
+    private long[] preguntaIds;
+    private byte[] permutaciones;
+    private Date inicio;
+    private byte[] preguntasJson;
+
+    public SesionExamen(){
+
+    }
+
+    public SesionExamen(Long examenId, long[] preguntaIds, byte[] permutaciones, Date inicio) {
+        this.examenId = examenId;
+        this.preguntaIds = preguntaIds;
+        this.permutaciones = permutaciones;
+        this.inicio = inicio;
+    }
+
+    public static int opcionOriginal(int permutacion, int opcionMostrada){
+        return PERMUTACIONES[permutacion][opcionMostrada - 1] + 1;
+    }
+
+    public static int cantidadDePermutaciones(){
+        return PERMUTACIONES.length;
+    }
+
+    public static int codigoDePermutacion(int[] permutacion){
+        for(int codigo = 0; codigo < PERMUTACIONES.length; codigo++){
+            int[] candidata = PERMUTACIONES[codigo];
+            if(candidata[0] == permutacion[0] && candidata[1] == permutacion[1]
+                    && candidata[2] == permutacion[2] && candidata[3] == permutacion[3]){
+                return codigo;
+            }
+        }
+        throw new IllegalArgumentException("Permutacion invalida");
+    }
+
+    private static int[][] generarPermutaciones(){
+        int[][] permutaciones = new int[24][];
+        int codigo = 0;
+        for(int a = 0; a < 4; a++){
+            for(int b = 0; b < 4; b++){
+                for(int c = 0; c < 4; c++){
+                    int d = 6 - a - b - c;
+                    if(a != b && a != c && b != c && d >= 0 && d < 4 && d != a && d != b && d != c){
+                        permutaciones[codigo++] = new int[]{a,b,c,d};
+                    }
+                }
+            }
+        }
+        return permutaciones;
+    }
+
+    public Long getExamenId() {
+        return examenId;
+    }
+
+    public void setExamenId(Long examenId) {
+        this.examenId = examenId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public long[] getPreguntaIds() {
+        return preguntaIds;
+    }
+
+    public void setPreguntaIds(long[] preguntaIds) {
+        this.preguntaIds = preguntaIds;
+    }
+
+    public byte[] getPermutaciones() {
+        return permutaciones;
+    }
+
+    public void setPermutaciones(byte[] permutaciones) {
+        this.permutaciones = permutaciones;
+    }
+
+    public Date getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(Date inicio) {
+        this.inicio = inicio;
+    }
+
+    public byte[] getPreguntasJson() {
+        return preguntasJson;
+    }
+
+    public void setPreguntasJson(byte[] preguntasJson) {
+        this.preguntasJson = preguntasJson;
+    }
+}
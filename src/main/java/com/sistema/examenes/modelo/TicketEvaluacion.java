@@ -0,0 +1,59 @@
+package com.sistema.examenes.modelo;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class TicketEvaluacion {
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String COMPLETADO = "COMPLETADO";
+    public static final String FALLIDO = "FALLIDO";
+
+    private String ticket;
+    @JsonIgnore
+    private String username;
+    private String estado;
+    private ResultadoEvaluacion resultado;
+
+    public TicketEvaluacion(){
+
+    }
+
+    public TicketEvaluacion(String ticket, String username, String estado, ResultadoEvaluacion resultado) {
+        this.ticket = ticket;
+        this.username = username;
+        this.estado = estado;
+        this.resultado = resultado;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(String ticket) {
+        this.ticket = ticket;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public ResultadoEvaluacion getResultado() {
+        return resultado;
+    }
+
+    public void setResultado(ResultadoEvaluacion resultado) {
+        this.resultado = resultado;
+    }
+}
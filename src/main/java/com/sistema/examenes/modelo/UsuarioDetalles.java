@@ -0,0 +1,115 @@
+package com.sistema.examenes.modelo;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Copia inmutable de un usuario con sus autoridades ya calculadas, para guardarla en cache y compartirla entre peticiones
+public final class UsuarioDetalles implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final String nombre;
+    private final String apellido;
+    private final String email;
+    private final String telefono;
+    private final boolean enabled;
+    private final String perfil;
+    private final Set<Authority> authorities;
+
+    private UsuarioDetalles(Usuario usuario, Set<Authority> authorities) {
+        this.id = usuario.getId();
+        this.username = usuario.getUsername();
+        this.password = usuario.getPassword();
+        this.nombre = usuario.getNombre();
+        this.apellido = usuario.getApellido();
+        this.email = usuario.getEmail();
+        this.telefono = usuario.getTelefono();
+        this.enabled = usuario.isEnabled();
+        this.perfil = usuario.getPerfil();
+        this.authorities = authorities;
+    }
+
+    public static UsuarioDetalles de(Usuario usuario){
+        Set<Authority> autoridades = new LinkedHashSet<>();
+        for(UsuarioRol usuarioRol : usuario.getUsuarioRoles()){
+            autoridades.add(new Authority(usuarioRol.getRol().getRolNombre()));
+        }
+        return new UsuarioDetalles(usuario,Collections.unmodifiableSet(autoridades));
+    }
+
+    // Usuario autenticado a partir de los claims del token, sin consultar la base de datos
+    public static UsuarioDetalles deToken(Long id, String username, Collection<Authority> autoridades){
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setUsername(username);
+        usuario.setEnabled(true);
+        return new UsuarioDetalles(usuario,Collections.unmodifiableSet(new LinkedHashSet<>(autoridades)));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    @JsonIgnore
+    public String getPassword() {
+        return password;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefono() {
+        return telefono;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getPerfil() {
+        return perfil;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+}
@@ -1,8 +1,20 @@
 package com.sistema.examenes.repositorios;
 
 import com.sistema.examenes.modelo.Categoria;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface CategoriaRepository extends JpaRepository<Categoria,Long> {
 
+    List<Categoria> findByCategoriaIdGreaterThanOrderByCategoriaIdAsc(Long cursor, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Categoria c where c.categoriaId = :categoriaId")
+    int eliminarPorId(@Param("categoriaId") Long categoriaId);
+
 }
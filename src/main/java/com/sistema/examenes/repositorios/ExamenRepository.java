@@ -1,16 +1,66 @@
 package com.sistema.examenes.repositorios;
 
 import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.ConteoExamenes;
 import com.sistema.examenes.modelo.Examen;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
 
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface ExamenRepository extends JpaRepository<Examen,Long> {
 
+    String CONSULTAS_EXAMENES = "consultas-examenes";
+
+    @Override
+    @EntityGraph(attributePaths = "categoria")
+    List<Examen> findAll();
+
+    @EntityGraph(attributePaths = "categoria")
     List<Examen> findByCategoria(Categoria categoria);
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE,value = "true"),@QueryHint(name = HINT_CACHE_REGION,value = CONSULTAS_EXAMENES)})
+    @EntityGraph(attributePaths = "categoria")
     List<Examen> findByActivo(Boolean estado);
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE,value = "true"),@QueryHint(name = HINT_CACHE_REGION,value = CONSULTAS_EXAMENES)})
+    @EntityGraph(attributePaths = "categoria")
     List<Examen> findByCategoriaAndActivo(Categoria categoria,Boolean estado);
+
+    @Query("select e.categoria.categoriaId as categoriaId, count(e) as cantidad from Examen e " +
+            "where e.activo = true group by e.categoria.categoriaId")
+    List<ConteoExamenes> contarExamenesActivosPorCategoria();
+
+    @EntityGraph(attributePaths = "categoria")
+    List<Examen> findByExamenIdGreaterThanOrderByExamenIdAsc(Long cursor, Pageable pageable);
+
+    @EntityGraph(attributePaths = "categoria")
+    List<Examen> findByActivoAndExamenIdGreaterThanOrderByExamenIdAsc(Boolean estado, Long cursor, Pageable pageable);
+
+    @EntityGraph(attributePaths = "categoria")
+    List<Examen> findByCategoriaCategoriaIdAndExamenIdGreaterThanOrderByExamenIdAsc(Long categoriaId, Long cursor, Pageable pageable);
+
+    @EntityGraph(attributePaths = "categoria")
+    List<Examen> findByCategoriaCategoriaIdAndActivoAndExamenIdGreaterThanOrderByExamenIdAsc(Long categoriaId, Boolean estado, Long cursor, Pageable pageable);
+
+    @Query("select e.examenId from Examen e where e.categoria.categoriaId = :categoriaId")
+    List<Long> findExamenIdsDeLaCategoria(@Param("categoriaId") Long categoriaId);
+
+    @Modifying
+    @Query("delete from Examen e where e.examenId = :examenId")
+    int eliminarPorId(@Param("examenId") Long examenId);
+
+    @Modifying
+    @Query("delete from Examen e where e.categoria.categoriaId = :categoriaId")
+    int eliminarPorCategoria(@Param("categoriaId") Long categoriaId);
 }
@@ -0,0 +1,26 @@
+package com.sistema.examenes.repositorios;
+
+import com.sistema.examenes.modelo.Intento;
+import com.sistema.examenes.modelo.IntentoExportado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface IntentoRepository extends JpaRepository<Intento,Long> {
+
+    List<Intento> findByExamenId(Long examenId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE,value = "1000"))
+    @Query("select i.intentoId as intentoId, i.username as username, i.examenId as examenId, i.puntosMaximos as puntosMaximos, " +
+            "i.respuestasCorrectas as respuestasCorrectas, i.intentos as intentos, i.fecha as fecha " +
+            "from Intento i where i.examenId = :examenId order by i.intentoId")
+    Stream<IntentoExportado> streamIntentosParaExportar(@Param("examenId") Long examenId);
+
+}
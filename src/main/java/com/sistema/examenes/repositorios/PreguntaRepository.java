@@ -2,12 +2,102 @@ package com.sistema.examenes.repositorios;
 
 import com.sistema.examenes.modelo.Examen;
 import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.PreguntaEstudiante;
+import com.sistema.examenes.modelo.PreguntaExportada;
+import com.sistema.examenes.modelo.PreguntaIndexada;
+import com.sistema.examenes.modelo.RespuestaCorrecta;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface PreguntaRepository extends JpaRepository<Pregunta,Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"examen","examen.categoria"})
+    List<Pregunta> findAll();
+
+    @EntityGraph(attributePaths = {"examen","examen.categoria"})
     Set<Pregunta> findByExamen(Examen examen);
 
+    @EntityGraph(attributePaths = {"examen","examen.categoria"})
+    List<Pregunta> findByExamenExamenIdAndPreguntaIdGreaterThanOrderByPreguntaIdAsc(Long examenId, Long cursor, Pageable pageable);
+
+    @Query("select p.preguntaId as preguntaId, p.opcion1 as opcion1, p.opcion2 as opcion2, p.opcion3 as opcion3, " +
+            "p.opcion4 as opcion4, p.respuesta as respuesta, e.examenId as examenId, " +
+            "p.peso as peso, p.puntos as puntos, e.puntosPorPregunta as puntosPorPregunta " +
+            "from Pregunta p left join p.examen e where p.preguntaId in :preguntaIds")
+    List<RespuestaCorrecta> findRespuestasCorrectas(@Param("preguntaIds") Collection<Long> preguntaIds);
+
+    @Query("select p.preguntaId as preguntaId, p.opcion1 as opcion1, p.opcion2 as opcion2, p.opcion3 as opcion3, " +
+            "p.opcion4 as opcion4, p.respuesta as respuesta, e.examenId as examenId, " +
+            "p.peso as peso, p.puntos as puntos, e.puntosPorPregunta as puntosPorPregunta " +
+            "from Pregunta p join p.examen e where e.examenId = :examenId")
+    List<RespuestaCorrecta> findRespuestasDelExamen(@Param("examenId") Long examenId);
+
+    @Query("select p.preguntaId as preguntaId, p.contenido as contenido, p.imagen as imagen, p.opcion1 as opcion1, " +
+            "p.opcion2 as opcion2, p.opcion3 as opcion3, p.opcion4 as opcion4 " +
+            "from Pregunta p where p.examen.examenId = :examenId")
+    List<PreguntaEstudiante> findPreguntasParaEstudiante(@Param("examenId") Long examenId);
+
+    @Query("select p.preguntaId as preguntaId, p.contenido as contenido, p.imagen as imagen, p.opcion1 as opcion1, " +
+            "p.opcion2 as opcion2, p.opcion3 as opcion3, p.opcion4 as opcion4 " +
+            "from Pregunta p where p.preguntaId in :preguntaIds")
+    List<PreguntaEstudiante> findPreguntasParaEstudianteByIds(@Param("preguntaIds") Collection<Long> preguntaIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE,value = "1000"))
+    @Query("select p.preguntaId as preguntaId, p.contenido as contenido, p.imagen as imagen, p.opcion1 as opcion1, " +
+            "p.opcion2 as opcion2, p.opcion3 as opcion3, p.opcion4 as opcion4, e.examenId as examenId " +
+            "from Pregunta p left join p.examen e")
+    Stream<PreguntaIndexada> streamPreguntasParaIndice();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE,value = "1000"))
+    @Query("select p.preguntaId as preguntaId, p.contenido as contenido, p.imagen as imagen, p.opcion1 as opcion1, " +
+            "p.opcion2 as opcion2, p.opcion3 as opcion3, p.opcion4 as opcion4, p.examen.examenId as examenId " +
+            "from Pregunta p where p.examen.examenId = :examenId")
+    Stream<PreguntaIndexada> streamPreguntasParaIndiceDelExamen(@Param("examenId") Long examenId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE,value = "1000"))
+    @Query("select p.preguntaId as preguntaId, p.examen.examenId as examenId, p.contenido as contenido, p.imagen as imagen, " +
+            "p.opcion1 as opcion1, p.opcion2 as opcion2, p.opcion3 as opcion3, p.opcion4 as opcion4, p.respuesta as respuesta, " +
+            "p.peso as peso, p.puntos as puntos from Pregunta p where p.examen.examenId = :examenId order by p.preguntaId")
+    Stream<PreguntaExportada> streamPreguntasParaExportar(@Param("examenId") Long examenId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE,value = "1000"))
+    @Query("select p.preguntaId as preguntaId, e.examenId as examenId, p.contenido as contenido, p.imagen as imagen, " +
+            "p.opcion1 as opcion1, p.opcion2 as opcion2, p.opcion3 as opcion3, p.opcion4 as opcion4, p.respuesta as respuesta, " +
+            "p.peso as peso, p.puntos as puntos from Pregunta p join p.examen e " +
+            "where e.categoria.categoriaId = :categoriaId order by e.examenId, p.preguntaId")
+    Stream<PreguntaExportada> streamPreguntasParaExportarDeLaCategoria(@Param("categoriaId") Long categoriaId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE,value = "1000"))
+    @Query("select p.preguntaId from Pregunta p where p.examen.examenId = :examenId order by p.preguntaId")
+    Stream<Long> streamPreguntaIdsDelExamen(@Param("examenId") Long examenId);
+
+    long countByExamenExamenId(Long examenId);
+
+    @Query("select p.examen.examenId from Pregunta p where p.preguntaId = :preguntaId")
+    Long findExamenIdByPreguntaId(@Param("preguntaId") Long preguntaId);
+
+    @Query("select p.preguntaId from Pregunta p where p.examen.examenId = :examenId order by p.preguntaId")
+    List<Long> findPreguntaIdsDelExamen(@Param("examenId") Long examenId, Pageable pageable);
+
+    @Query("select p.preguntaId from Pregunta p where p.examen.categoria.categoriaId = :categoriaId order by p.preguntaId")
+    List<Long> findPreguntaIdsDeLaCategoria(@Param("categoriaId") Long categoriaId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Pregunta p where p.preguntaId in :preguntaIds")
+    int eliminarPorIds(@Param("preguntaIds") Collection<Long> preguntaIds);
+
 }
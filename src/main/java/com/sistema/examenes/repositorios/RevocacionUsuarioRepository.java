@@ -0,0 +1,20 @@
+package com.sistema.examenes.repositorios;
+
+import com.sistema.examenes.modelo.RevocacionUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface RevocacionUsuarioRepository extends JpaRepository<RevocacionUsuario,Long> {
+
+    List<RevocacionUsuario> findByRevocadoEnGreaterThan(long desde);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevocacionUsuario r where r.revocadoEn <= :hasta")
+    int eliminarVencidas(@Param("hasta") long hasta);
+}
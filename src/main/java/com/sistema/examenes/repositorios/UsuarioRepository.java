@@ -1,10 +1,12 @@
 package com.sistema.examenes.repositorios;
 
 import com.sistema.examenes.modelo.Usuario;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface UsuarioRepository extends JpaRepository<Usuario,Long> {
 
+    @EntityGraph(attributePaths = {"usuarioRoles","usuarioRoles.rol"})
     public Usuario findByUsername(String username);
 
 }
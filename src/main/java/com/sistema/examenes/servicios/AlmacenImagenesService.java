@@ -0,0 +1,12 @@
+package com.sistema.examenes.servicios;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface AlmacenImagenesService {
+
+    String guardarImagen(InputStream contenido) throws IOException;
+
+    Path ubicarImagen(String nombre);
+}
@@ -1,6 +1,7 @@
 package com.sistema.examenes.servicios;
 
 import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Pagina;
 
 import java.util.Set;
 
@@ -12,6 +13,8 @@ public interface CategoriaService {
 
     Set<Categoria> obtenerCategorias();
 
+    Pagina<Categoria> obtenerCategorias(Long cursor, Integer limite);
+
     Categoria obtenerCategoria(Long categoriaId);
 
     void eliminarCategoria(Long categoriaId);
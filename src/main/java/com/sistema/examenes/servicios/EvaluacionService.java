@@ -0,0 +1,20 @@
+package com.sistema.examenes.servicios;
+
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.ResultadoEvaluacion;
+import com.sistema.examenes.modelo.SesionExamen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface EvaluacionService {
+
+    ResultadoEvaluacion evaluarExamen(List<Pregunta> preguntas);
+
+    ResultadoEvaluacion evaluarSesion(SesionExamen sesionExamen, int[] respuestas);
+
+    void evaluarEnLote(Long examenId, InputStream entrada, boolean csv, OutputStream salida) throws IOException;
+
+}
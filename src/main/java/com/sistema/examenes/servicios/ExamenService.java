@@ -2,6 +2,7 @@ package com.sistema.examenes.servicios;
 
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pagina;
 
 import java.util.List;
 import java.util.Set;
@@ -14,6 +15,8 @@ public interface ExamenService {
 
     Set<Examen> obtenerExamenes();
 
+    Pagina<Examen> obtenerExamenes(Long cursor, Integer limite, Boolean activo, Long categoriaId);
+
     Examen obtenerExamen(Long examenId);
 
     void eliminarExamen(Long examenId);
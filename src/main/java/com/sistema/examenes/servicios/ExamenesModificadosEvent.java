@@ -0,0 +1,14 @@
+package com.sistema.examenes.servicios;
+
+public class ExamenesModificadosEvent {
+
+    private final Long examenId;
+
+    public ExamenesModificadosEvent(Long examenId) {
+        this.examenId = examenId;
+    }
+
+    public Long getExamenId() {
+        return examenId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.sistema.examenes.servicios;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportacionService {
+
+    String JSON = "json";
+    String NDJSON = "ndjson";
+    String CSV = "csv";
+
+    boolean existeExamen(Long examenId);
+
+    boolean existeCategoria(Long categoriaId);
+
+    void exportarPreguntasDelExamen(Long examenId, String formato, OutputStream salida) throws IOException;
+
+    void exportarPreguntasDeLaCategoria(Long categoriaId, String formato, OutputStream salida) throws IOException;
+
+    void exportarResultadosDelExamen(Long examenId, String formato, OutputStream salida) throws IOException;
+
+}
@@ -0,0 +1,12 @@
+package com.sistema.examenes.servicios;
+
+import com.sistema.examenes.modelo.ResultadoImportacion;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportacionPreguntasService {
+
+    ResultadoImportacion importar(Long examenId, InputStream entrada, boolean csv) throws IOException;
+
+}
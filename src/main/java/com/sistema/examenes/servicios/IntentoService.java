@@ -0,0 +1,9 @@
+package com.sistema.examenes.servicios;
+
+import com.sistema.examenes.modelo.ResultadoEvaluacion;
+
+public interface IntentoService {
+
+    void registrarIntento(String username, ResultadoEvaluacion resultado);
+
+}
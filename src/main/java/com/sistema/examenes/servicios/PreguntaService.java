@@ -1,6 +1,7 @@
 package com.sistema.examenes.servicios;
 
 import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pagina;
 import com.sistema.examenes.modelo.Pregunta;
 
 import java.util.Set;
@@ -17,6 +18,8 @@ public interface PreguntaService {
 
     Set<Pregunta> obtenerPreguntasDelExamen(Examen examen);
 
+    Pagina<Pregunta> obtenerPreguntasDelExamen(Long examenId, Long cursor, Integer limite);
+
     void eliminarPregunta(Long preguntaId);
 
     Pregunta listarPregunta(Long preguntaId);
@@ -0,0 +1,12 @@
+package com.sistema.examenes.servicios;
+
+import com.sistema.examenes.modelo.SesionExamen;
+
+public interface SesionExamenService {
+
+    SesionExamen iniciarSesion(Long examenId, String username);
+
+    String emitirToken(SesionExamen sesionExamen);
+
+    SesionExamen validarToken(String token);
+}
@@ -0,0 +1,21 @@
+package com.sistema.examenes.servicios;
+
+public class UsuarioModificadoEvent {
+
+    private final Long usuarioId;
+
+    private final String username;
+
+    public UsuarioModificadoEvent(Long usuarioId, String username) {
+        this.usuarioId = usuarioId;
+        this.username = username;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
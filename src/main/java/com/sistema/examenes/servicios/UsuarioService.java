@@ -12,4 +12,6 @@ public interface UsuarioService {
     public Usuario obtenerUsuario(String username);
 
     public void eliminarUsuario(Long usuarioId);
+
+    public Usuario actualizarPerfil(String username, String perfil);
 }
@@ -0,0 +1,119 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.servicios.AlmacenImagenesService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+@Service
+public class AlmacenImagenesServiceImpl implements AlmacenImagenesService {
+
+    private static final Pattern NOMBRE_VALIDO = Pattern.compile("[0-9a-f]{64}\\.(png|jpg|gif|webp)");
+
+    private static final char[] HEXADECIMAL = "0123456789abcdef".toCharArray();
+
+    private final Path directorio;
+
+    private final long tamanoMaximo;
+
+    public AlmacenImagenesServiceImpl(@Value("${examenes.imagenes.directorio:imagenes}") String directorio,
+                                      @Value("${examenes.imagenes.tamano-maximo:5242880}") long tamanoMaximo) {
+        this.directorio = Paths.get(directorio).toAbsolutePath().normalize();
+        this.tamanoMaximo = tamanoMaximo;
+    }
+
+    @Override
+    public String guardarImagen(InputStream contenido) throws IOException {
+        Path temporales = Files.createDirectories(directorio.resolve("tmp"));
+        Path temporal = Files.createTempFile(temporales,"subida",".tmp");
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] cabecera = new byte[12];
+            int leidosCabecera = 0;
+            long total = 0;
+            byte[] buffer = new byte[16 * 1024];
+            try(OutputStream salida = Files.newOutputStream(temporal)){
+                int leidos;
+                while((leidos = contenido.read(buffer)) != -1){
+                    total += leidos;
+                    if(total > tamanoMaximo){
+                        throw new IllegalArgumentException("La imagen supera el tamaño máximo de " + tamanoMaximo + " bytes");
+                    }
+                    if(leidosCabecera < cabecera.length){
+                        int copiar = Math.min(cabecera.length - leidosCabecera,leidos);
+                        System.arraycopy(buffer,0,cabecera,leidosCabecera,copiar);
+                        leidosCabecera += copiar;
+                    }
+                    sha256.update(buffer,0,leidos);
+                    salida.write(buffer,0,leidos);
+                }
+            }
+
+            String nombre = hexadecimal(sha256.digest()) + "." + extension(cabecera,leidosCabecera);
+            Path destino = ubicacion(nombre);
+            if(!Files.exists(destino)){
+                Files.createDirectories(destino.getParent());
+                try {
+                    Files.move(temporal,destino,StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Otra subida concurrente guardó el mismo contenido
+                }
+            }
+            return nombre;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    @Override
+    public Path ubicarImagen(String nombre) {
+        if(nombre == null || !NOMBRE_VALIDO.matcher(nombre).matches()){
+            return null;
+        }
+        Path ubicacion = ubicacion(nombre);
+        return Files.isRegularFile(ubicacion) ? ubicacion : null;
+    }
+
+    private Path ubicacion(String nombre){
+        return directorio.resolve(nombre.substring(0,2)).resolve(nombre.substring(2,4)).resolve(nombre);
+    }
+
+    private String extension(byte[] cabecera, int leidos){
+        if(leidos >= 8 && (cabecera[0] & 0xFF) == 0x89 && cabecera[1] == 'P' && cabecera[2] == 'N' && cabecera[3] == 'G'){
+            return "png";
+        }
+        if(leidos >= 3 && (cabecera[0] & 0xFF) == 0xFF && (cabecera[1] & 0xFF) == 0xD8 && (cabecera[2] & 0xFF) == 0xFF){
+            return "jpg";
+        }
+        if(leidos >= 6 && cabecera[0] == 'G' && cabecera[1] == 'I' && cabecera[2] == 'F' && cabecera[3] == '8'){
+            return "gif";
+        }
+        if(leidos >= 12 && cabecera[0] == 'R' && cabecera[1] == 'I' && cabecera[2] == 'F' && cabecera[3] == 'F'
+                && cabecera[8] == 'W' && cabecera[9] == 'E' && cabecera[10] == 'B' && cabecera[11] == 'P'){
+            return "webp";
+        }
+        throw new IllegalArgumentException("Formato de imagen no soportado");
+    }
+
+    private String hexadecimal(byte[] bytes){
+        char[] caracteres = new char[bytes.length * 2];
+        for(int i = 0; i < bytes.length; i++){
+            caracteres[i * 2] = HEXADECIMAL[(bytes[i] >> 4) & 0xF];
+            caracteres[i * 2 + 1] = HEXADECIMAL[bytes[i] & 0xF];
+        }
+        return new String(caracteres);
+    }
+}
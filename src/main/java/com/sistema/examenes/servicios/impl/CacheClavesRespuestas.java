@@ -0,0 +1,32 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.examenes.modelo.ClaveRespuestas;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CacheClavesRespuestas {
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    private final Cache<Long,ClaveRespuestas> claves;
+
+    public CacheClavesRespuestas(@Value("${examenes.evaluacion.claves.maximo:500}") long maximo) {
+        this.claves = Caffeine.newBuilder().maximumSize(maximo).build();
+    }
+
+    public ClaveRespuestas obtener(Long examenId){
+        return claves.get(examenId,id -> ClaveRespuestas.compilar(id,preguntaRepository.findRespuestasDelExamen(id)));
+    }
+
+    public void invalidar(Long examenId){
+        if(examenId != null){
+            claves.invalidate(examenId);
+        }
+    }
+}
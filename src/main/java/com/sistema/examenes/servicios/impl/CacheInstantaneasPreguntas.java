@@ -0,0 +1,79 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+@Component
+public class CacheInstantaneasPreguntas {
+
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate lectura;
+
+    private final long maximoDePreguntas;
+
+    private final Cache<Long,Optional<InstantaneaPreguntas>> instantaneas;
+
+    public CacheInstantaneasPreguntas(@Value("${examenes.instantaneas.max-preguntas:5000}") long maximoDePreguntas,
+                                      @Value("${examenes.instantaneas.max-megabytes:256}") long maximoDeMegabytes) {
+        this.maximoDePreguntas = maximoDePreguntas;
+        this.instantaneas = Caffeine.newBuilder()
+                .maximumWeight(maximoDeMegabytes * 1024)
+                .weigher((Long examenId, Optional<InstantaneaPreguntas> instantanea) ->
+                        instantanea.map(i -> (int) Math.min(Integer.MAX_VALUE,i.getTamanoEnBytes() / 1024 + 1)).orElse(1))
+                .build();
+    }
+
+    @PostConstruct
+    public void iniciar(){
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    public Optional<InstantaneaPreguntas> obtener(Long examenId){
+        return instantaneas.get(examenId,id -> lectura.execute(estado -> construir(id)));
+    }
+
+    public void invalidar(Long examenId){
+        if(examenId != null){
+            instantaneas.invalidate(examenId);
+        }
+    }
+
+    private Optional<InstantaneaPreguntas> construir(Long examenId){
+        if(preguntaRepository.countByExamenExamenId(examenId) > maximoDePreguntas){
+            return Optional.empty();
+        }
+        Examen examen = examenRepository.findById(examenId).get();
+        try {
+            return Optional.of(InstantaneaPreguntas.construir(examenId,examen.getNumeroDePreguntas(),
+                    preguntaRepository.findPreguntasParaEstudiante(examenId),objectMapper));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
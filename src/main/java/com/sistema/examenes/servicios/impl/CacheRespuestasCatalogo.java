@@ -0,0 +1,121 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class CacheRespuestasCatalogo {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Cache<String,RespuestaSerializada> respuestas;
+    private Counter aciertos;
+    private Counter fallos;
+    private Counter bytesJson;
+    private Counter bytesGzip;
+
+    public CacheRespuestasCatalogo(@Value("${examenes.respuestas.cache.maximo:1000}") long maximo,
+                                   @Value("${examenes.respuestas.cache.minutos-sin-uso:10}") long minutosSinUso) {
+        this.respuestas = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterAccess(Duration.ofMinutes(minutosSinUso))
+                .build();
+    }
+
+    @PostConstruct
+    public void iniciar(){
+        aciertos = Counter.builder("respuestas.cache.aciertos").register(meterRegistry);
+        fallos = Counter.builder("respuestas.cache.fallos").register(meterRegistry);
+        bytesJson = Counter.builder("respuestas.cache.bytes").tag("codificacion","identity").register(meterRegistry);
+        bytesGzip = Counter.builder("respuestas.cache.bytes").tag("codificacion","gzip").register(meterRegistry);
+    }
+
+    // La variante comprimida tiene otros bytes, así que lleva su propio ETag fuerte
+    public String etag(String etag, String aceptaCodificacion){
+        if(!aceptaGzip(aceptaCodificacion)){
+            return etag;
+        }
+        return etag.substring(0,etag.length() - 1) + "-gzip\"";
+    }
+
+    public ResponseEntity<byte[]> responder(String clave, String aceptaCodificacion, Supplier<?> contenido){
+        RespuestaSerializada respuesta = respuestas.getIfPresent(clave);
+        if(respuesta != null){
+            aciertos.increment();
+        }else{
+            fallos.increment();
+            respuesta = respuestas.get(clave,k -> serializar(contenido.get()));
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY,HttpHeaders.ACCEPT_ENCODING);
+        if(aceptaGzip(aceptaCodificacion)){
+            bytesGzip.increment(respuesta.gzip.length);
+            return builder.header(HttpHeaders.CONTENT_ENCODING,"gzip").body(respuesta.gzip);
+        }
+        bytesJson.increment(respuesta.json.length);
+        return builder.body(respuesta.json);
+    }
+
+    private RespuestaSerializada serializar(Object contenido){
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(contenido);
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(json.length / 4 + 64);
+            try(GZIPOutputStream gzip = new GZIPOutputStream(comprimido)){
+                gzip.write(json);
+            }
+            return new RespuestaSerializada(json,comprimido.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean aceptaGzip(String aceptaCodificacion){
+        if(aceptaCodificacion == null){
+            return false;
+        }
+        for(String codificacion : aceptaCodificacion.split(",")){
+            String[] partes = codificacion.trim().split(";");
+            if(partes[0].trim().equalsIgnoreCase("gzip")){
+                return partes.length < 2 || !partes[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static final class RespuestaSerializada {
+
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private RespuestaSerializada(byte[] json, byte[] gzip) {
+            this.json = json;
+            this.gzip = gzip;
+        }
+    }
+}
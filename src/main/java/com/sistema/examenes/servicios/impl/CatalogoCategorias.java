@@ -0,0 +1,75 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.modelo.Categoria;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+final class CatalogoCategorias {
+
+    private final Map<Long,Categoria> porId;
+    private final Set<Categoria> categorias;
+    private final Map<Long,Long> examenesActivos;
+
+    private CatalogoCategorias(Map<Long,Categoria> porId, Map<Long,Long> examenesActivos) {
+        this.porId = Collections.unmodifiableMap(porId);
+        this.categorias = Collections.unmodifiableSet(new LinkedHashSet<>(porId.values()));
+        this.examenesActivos = examenesActivos;
+    }
+
+    static CatalogoCategorias de(Collection<Categoria> categorias, Map<Long,Long> examenesActivos){
+        Map<Long,Categoria> porId = new LinkedHashMap<>();
+        for(Categoria categoria : categorias){
+            porId.put(categoria.getCategoriaId(),copiar(categoria,examenesActivos));
+        }
+        return new CatalogoCategorias(porId,examenesActivos);
+    }
+
+    CatalogoCategorias con(Categoria categoria){
+        Map<Long,Categoria> porId = new LinkedHashMap<>(this.porId);
+        porId.put(categoria.getCategoriaId(),copiar(categoria,examenesActivos));
+        return new CatalogoCategorias(porId,examenesActivos);
+    }
+
+    CatalogoCategorias sin(Long categoriaId){
+        Map<Long,Categoria> porId = new LinkedHashMap<>(this.porId);
+        porId.remove(categoriaId);
+        return new CatalogoCategorias(porId,examenesActivos);
+    }
+
+    CatalogoCategorias conExamenesActivos(Map<Long,Long> examenesActivos){
+        return de(porId.values(),examenesActivos);
+    }
+
+    Categoria obtener(Long categoriaId){
+        Categoria categoria = porId.get(categoriaId);
+        return categoria != null ? copiar(categoria,examenesActivos) : null;
+    }
+
+    Set<Categoria> getCategorias(){
+        Set<Categoria> copias = new LinkedHashSet<>(categorias.size() * 2);
+        for(Categoria categoria : categorias){
+            copias.add(copiar(categoria,examenesActivos));
+        }
+        return copias;
+    }
+
+    Map<Long,Long> getExamenesActivos(){
+        return examenesActivos;
+    }
+
+    private static Categoria copiar(Categoria categoria, Map<Long,Long> examenesActivos){
+        Categoria copia = new Categoria();
+        copia.setCategoriaId(categoria.getCategoriaId());
+        copia.setTitulo(categoria.getTitulo());
+        copia.setDescripcion(categoria.getDescripcion());
+        copia.setVersion(categoria.getVersion());
+        copia.setActualizado(categoria.getActualizado());
+        copia.setExamenesActivos(examenesActivos.getOrDefault(categoria.getCategoriaId(),0L));
+        return copia;
+    }
+}
@@ -2,13 +2,24 @@ package com.sistema.examenes.servicios.impl;
 
 
 import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.ConteoExamenes;
+import com.sistema.examenes.modelo.Pagina;
 import com.sistema.examenes.repositorios.CategoriaRepository;
+import com.sistema.examenes.repositorios.ExamenRepository;
 import com.sistema.examenes.servicios.CategoriaService;
+import com.sistema.examenes.servicios.ExamenesModificadosEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 @Service
 public class CategoriaServiceImpl  implements CategoriaService {
@@ -16,30 +27,136 @@ public class CategoriaServiceImpl  implements CategoriaService {
     @Autowired
     private CategoriaRepository categoriaRepository;
 
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private VersionesCatalogo versionesCatalogo;
+
+    @Autowired
+    private EliminacionMasiva eliminacionMasiva;
+
+    @Autowired
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    @Autowired
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Value("${examenes.paginacion.limite-maximo:200}")
+    private int limiteMaximo;
+
+    private volatile CatalogoCategorias catalogo;
+
+    // Carga, escrituras y recuento de exámenes activos se aplican al catálogo de a uno
+    private final Object cerrojo = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarCatalogo(){
+        catalogo();
+    }
+
+    @EventListener
+    public void alModificarExamenes(ExamenesModificadosEvent evento){
+        synchronized (cerrojo){
+            CatalogoCategorias anterior = catalogo;
+            if(anterior == null){
+                return;
+            }
+            Map<Long,Long> examenesActivos = contarExamenesActivos();
+            if(!anterior.getExamenesActivos().equals(examenesActivos)){
+                catalogo = anterior.conExamenesActivos(examenesActivos);
+                versionesCatalogo.incrementar(VersionesCatalogo.CATEGORIAS);
+            }
+        }
+    }
+
     @Override
     public Categoria agregarCategoria(Categoria categoria) {
-        return categoriaRepository.save(categoria);
+        categoria.setVersion(null);
+        Categoria categoriaGuardada = categoriaRepository.save(categoria);
+        modificar(actual -> actual.con(categoriaGuardada));
+        versionesCatalogo.incrementar(VersionesCatalogo.CATEGORIAS);
+        return categoriaGuardada;
     }
 
     @Override
     public Categoria actualizarCategoria(Categoria categoria) {
-        return categoriaRepository.save(categoria);
+        categoria.setVersion(versionGuardada(categoria.getCategoriaId()));
+        Categoria categoriaActualizada = categoriaRepository.save(categoria);
+        modificar(actual -> actual.con(categoriaActualizada));
+        versionesCatalogo.incrementar(VersionesCatalogo.CATEGORIAS,VersionesCatalogo.EXAMENES);
+        return categoriaActualizada;
     }
 
     @Override
     public Set<Categoria> obtenerCategorias() {
-        return new LinkedHashSet<>(categoriaRepository.findAll());
+        return catalogo().getCategorias();
+    }
+
+    @Override
+    public Pagina<Categoria> obtenerCategorias(Long cursor, Integer limite) {
+        int tamano = Pagina.limitar(limite,limiteMaximo);
+        List<Categoria> filas = categoriaRepository.findByCategoriaIdGreaterThanOrderByCategoriaIdAsc(Pagina.cursorInicial(cursor),PageRequest.of(0,tamano + 1));
+        return Pagina.de(filas,tamano,Categoria::getCategoriaId);
     }
 
     @Override
     public Categoria obtenerCategoria(Long categoriaId) {
+        Categoria categoria = catalogo().obtener(categoriaId);
+        if(categoria != null){
+            return categoria;
+        }
         return categoriaRepository.findById(categoriaId).get();
     }
 
     @Override
     public void eliminarCategoria(Long categoriaId) {
-        Categoria categoria = new Categoria();
-        categoria.setCategoriaId(categoriaId);
-        categoriaRepository.delete(categoria);
+        List<Long> examenIds = eliminacionMasiva.eliminarCategoria(categoriaId);
+        for(Long examenId : examenIds){
+            cacheClavesRespuestas.invalidar(examenId);
+            cacheInstantaneasPreguntas.invalidar(examenId);
+            indiceBusqueda.eliminarExamen(examenId);
+        }
+        modificar(actual -> actual.sin(categoriaId));
+        versionesCatalogo.incrementar(VersionesCatalogo.CATEGORIAS,VersionesCatalogo.EXAMENES);
+    }
+
+    private CatalogoCategorias catalogo(){
+        CatalogoCategorias actual = catalogo;
+        if(actual != null){
+            return actual;
+        }
+        synchronized (cerrojo){
+            if(catalogo == null){
+                catalogo = CatalogoCategorias.de(categoriaRepository.findAll(),contarExamenesActivos());
+            }
+            return catalogo;
+        }
+    }
+
+    private void modificar(UnaryOperator<CatalogoCategorias> cambio){
+        synchronized (cerrojo){
+            if(catalogo != null){
+                catalogo = cambio.apply(catalogo);
+            }
+        }
+    }
+
+    private Map<Long,Long> contarExamenesActivos(){
+        Map<Long,Long> examenesActivos = new HashMap<>();
+        for(ConteoExamenes conteo : examenRepository.contarExamenesActivosPorCategoria()){
+            examenesActivos.put(conteo.getCategoriaId(),conteo.getCantidad());
+        }
+        return examenesActivos;
+    }
+
+    private Long versionGuardada(Long categoriaId){
+        if(categoriaId == null){
+            return null;
+        }
+        return categoriaRepository.findById(categoriaId).map(Categoria::getVersion).orElse(null);
     }
 }
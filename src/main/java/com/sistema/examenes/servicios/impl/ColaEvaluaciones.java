@@ -0,0 +1,192 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.ResultadoEvaluacion;
+import com.sistema.examenes.modelo.TicketEvaluacion;
+import com.sistema.examenes.servicios.EvaluacionService;
+import com.sistema.examenes.servicios.IntentoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ColaEvaluaciones {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaEvaluaciones.class);
+
+    private static final long ESPERA_AL_DETENER_SEGUNDOS = 30;
+
+    private static final long ESPERA_DE_SOLICITUD_MILISEGUNDOS = 200;
+
+    @Autowired
+    private EvaluacionService evaluacionService;
+
+    @Autowired
+    private IntentoService intentoService;
+
+    private final BlockingQueue<SolicitudEvaluacion> cola;
+    private final Cache<String,TicketEvaluacion> tickets;
+    private final int hilos;
+    private final int tamanoLote;
+    private final int reintentarEnSegundos;
+    private final ReadWriteLock admision = new ReentrantReadWriteLock();
+    private volatile boolean aceptando = true;
+    private ExecutorService trabajadores;
+
+    public ColaEvaluaciones(@Value("${examenes.evaluacion.cola.capacidad:10000}") int capacidad,
+                            @Value("${examenes.evaluacion.cola.hilos:4}") int hilos,
+                            @Value("${examenes.evaluacion.cola.lote:64}") int tamanoLote,
+                            @Value("${examenes.evaluacion.cola.retencion-minutos:30}") long retencionMinutos,
+                            @Value("${examenes.evaluacion.cola.reintentar-en-segundos:2}") int reintentarEnSegundos,
+                            @Value("${examenes.evaluacion.cola.tickets-maximo:100000}") long maximoTickets) {
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(maximoTickets)
+                .expireAfterWrite(retencionMinutos,TimeUnit.MINUTES)
+                .build();
+        this.hilos = hilos;
+        this.tamanoLote = tamanoLote;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    @PostConstruct
+    public void iniciar(){
+        AtomicInteger contador = new AtomicInteger();
+        trabajadores = Executors.newFixedThreadPool(hilos,tarea -> {
+            Thread hilo = new Thread(tarea,"evaluador-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        for(int i = 0; i < hilos; i++){
+            trabajadores.execute(this::procesar);
+        }
+    }
+
+    @PreDestroy
+    public void detener(){
+        admision.writeLock().lock();
+        try{
+            aceptando = false;
+        }finally {
+            admision.writeLock().unlock();
+        }
+        boolean vaciada = true;
+        if(trabajadores != null){
+            trabajadores.shutdown();
+            try{
+                vaciada = trabajadores.awaitTermination(ESPERA_AL_DETENER_SEGUNDOS,TimeUnit.SECONDS);
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+                vaciada = false;
+            }
+            if(!vaciada){
+                log.warn("La cola de evaluaciones no se vació en {} segundos",ESPERA_AL_DETENER_SEGUNDOS);
+                trabajadores.shutdownNow();
+            }
+        }
+        List<SolicitudEvaluacion> restantes = new ArrayList<>();
+        cola.drainTo(restantes);
+        for(SolicitudEvaluacion solicitud : restantes){
+            if(vaciada){
+                evaluar(solicitud);
+            }else{
+                tickets.put(solicitud.ticket,new TicketEvaluacion(solicitud.ticket,solicitud.username,TicketEvaluacion.FALLIDO,null));
+            }
+        }
+    }
+
+    public TicketEvaluacion encolar(String username, List<Pregunta> preguntas){
+        admision.readLock().lock();
+        try{
+            if(!aceptando){
+                return null;
+            }
+            TicketEvaluacion ticket = new TicketEvaluacion(UUID.randomUUID().toString(),username,TicketEvaluacion.PENDIENTE,null);
+            tickets.put(ticket.getTicket(),ticket);
+            if(!cola.offer(new SolicitudEvaluacion(ticket.getTicket(),username,preguntas))){
+                tickets.invalidate(ticket.getTicket());
+                return null;
+            }
+            return ticket;
+        }finally {
+            admision.readLock().unlock();
+        }
+    }
+
+    public TicketEvaluacion consultar(String ticket, String username){
+        TicketEvaluacion ticketEvaluacion = tickets.getIfPresent(ticket);
+        if(ticketEvaluacion == null || !ticketEvaluacion.getUsername().equals(username)){
+            return null;
+        }
+        return ticketEvaluacion;
+    }
+
+    public int getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+
+    private void procesar(){
+        List<SolicitudEvaluacion> lote = new ArrayList<>(tamanoLote);
+        while(!Thread.currentThread().isInterrupted() && (aceptando || !cola.isEmpty())){
+            try{
+                SolicitudEvaluacion siguiente = cola.poll(ESPERA_DE_SOLICITUD_MILISEGUNDOS,TimeUnit.MILLISECONDS);
+                if(siguiente == null){
+                    continue;
+                }
+                lote.add(siguiente);
+                cola.drainTo(lote,tamanoLote - 1);
+                for(SolicitudEvaluacion solicitud : lote){
+                    evaluar(solicitud);
+                }
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void evaluar(SolicitudEvaluacion solicitud){
+        TicketEvaluacion ticket;
+        try{
+            ResultadoEvaluacion resultado = evaluacionService.evaluarExamen(solicitud.preguntas);
+            intentoService.registrarIntento(solicitud.username,resultado);
+            ticket = new TicketEvaluacion(solicitud.ticket,solicitud.username,TicketEvaluacion.COMPLETADO,resultado);
+        }catch (Exception exception){
+            log.error("No se pudo evaluar el ticket {}",solicitud.ticket,exception);
+            ticket = new TicketEvaluacion(solicitud.ticket,solicitud.username,TicketEvaluacion.FALLIDO,null);
+        }
+        tickets.put(solicitud.ticket,ticket);
+    }
+
+    private static class SolicitudEvaluacion {
+
+        private final String ticket;
+        private final String username;
+        private final List<Pregunta> preguntas;
+
+        private SolicitudEvaluacion(String ticket, String username, List<Pregunta> preguntas) {
+            this.ticket = ticket;
+            this.username = username;
+            this.preguntas = preguntas;
+        }
+    }
+}
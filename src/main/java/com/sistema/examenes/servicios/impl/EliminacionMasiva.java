@@ -0,0 +1,70 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.repositorios.CategoriaRepository;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class EliminacionMasiva {
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final int tamanoLote;
+
+    public EliminacionMasiva(@Value("${examenes.eliminacion.lote:1000}") int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+    }
+
+    public void eliminarExamen(Long examenId){
+        eliminar(pagina -> preguntaRepository.findPreguntaIdsDelExamen(examenId,pagina),
+                () -> examenRepository.eliminarPorId(examenId));
+    }
+
+    public List<Long> eliminarCategoria(Long categoriaId){
+        List<Long> examenIds = examenRepository.findExamenIdsDeLaCategoria(categoriaId);
+        eliminar(pagina -> preguntaRepository.findPreguntaIdsDeLaCategoria(categoriaId,pagina),() -> {
+            examenRepository.eliminarPorCategoria(categoriaId);
+            categoriaRepository.eliminarPorId(categoriaId);
+        });
+        return examenIds;
+    }
+
+    // Cada lote de preguntas se borra en su propia transacción para no retener los bloqueos;
+    // el último lote borra también los exámenes y la categoría, así un banco pequeño se elimina en una sola transacción
+    private void eliminar(Function<Pageable,List<Long>> preguntasPendientes,Runnable eliminarPadres){
+        Pageable lote = PageRequest.of(0,tamanoLote);
+        boolean terminado;
+        do{
+            terminado = transactionTemplate.execute(estado -> {
+                List<Long> preguntaIds = preguntasPendientes.apply(lote);
+                if(!preguntaIds.isEmpty()){
+                    preguntaRepository.eliminarPorIds(preguntaIds);
+                }
+                if(preguntaIds.size() < tamanoLote){
+                    eliminarPadres.run();
+                    return true;
+                }
+                return false;
+            });
+        }while (!terminado);
+    }
+}
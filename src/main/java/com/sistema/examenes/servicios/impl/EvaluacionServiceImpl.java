@@ -0,0 +1,312 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.ClaveRespuestas;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.RespuestaCorrecta;
+import com.sistema.examenes.modelo.RespuestaEstudiante;
+import com.sistema.examenes.modelo.ResultadoEstudiante;
+import com.sistema.examenes.modelo.ResultadoEvaluacion;
+import com.sistema.examenes.modelo.SesionExamen;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.EvaluacionService;
+import com.sistema.examenes.servicios.IntentoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+@Service
+public class EvaluacionServiceImpl implements EvaluacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(EvaluacionServiceImpl.class);
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    @Autowired
+    private IntentoService intentoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${examenes.evaluacion.masiva.paralelismo:0}")
+    private int paralelismo;
+
+    @Value("${examenes.evaluacion.masiva.estudiantes-en-proceso:256}")
+    private int estudiantesEnProceso;
+
+    // Estudiantes ya calificados que se recuerdan para rechazar filas no contiguas; uno que reaparezca pasado este límite se califica de nuevo
+    @Value("${examenes.evaluacion.masiva.estudiantes-recordados:10000}")
+    private int estudiantesRecordados;
+
+    private ForkJoinPool evaluadores;
+
+    @PostConstruct
+    public void iniciar(){
+        evaluadores = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void detener(){
+        evaluadores.shutdown();
+    }
+
+    @Override
+    public ResultadoEvaluacion evaluarExamen(List<Pregunta> preguntas) {
+        Long examenId = examenIdDe(preguntas);
+        ClaveRespuestas clave = examenId != null ? cacheClavesRespuestas.obtener(examenId) : compilarClaveDelEnvio(preguntas);
+        return evaluarContraClave(clave,preguntas);
+    }
+
+    @Override
+    public ResultadoEvaluacion evaluarSesion(SesionExamen sesionExamen, int[] respuestas) {
+        ClaveRespuestas clave = cacheClavesRespuestas.obtener(sesionExamen.getExamenId());
+        long[] preguntaIds = sesionExamen.getPreguntaIds();
+        byte[] permutaciones = sesionExamen.getPermutaciones();
+
+        double puntosMaximos = 0;
+        int correctas = 0;
+        int intentos = 0;
+
+        for(int i = 0; i < preguntaIds.length; i++){
+            int opcionDada = i < respuestas.length ? respuestas[i] : 0;
+            if(opcionDada < 1 || opcionDada > 4){
+                continue;
+            }
+            intentos ++;
+            int indice = clave.indiceDe(preguntaIds[i]);
+            if(clave.esCorrecta(indice,SesionExamen.opcionOriginal(permutaciones[i],opcionDada))){
+                correctas ++;
+                puntosMaximos += clave.getPuntos(indice);
+            }
+        }
+        return new ResultadoEvaluacion(clave.getExamenId(),puntosMaximos,correctas,intentos);
+    }
+
+    @Override
+    public void evaluarEnLote(Long examenId, InputStream entrada, boolean csv, OutputStream salida) throws IOException {
+        ClaveRespuestas clave = cacheClavesRespuestas.obtener(examenId);
+        SalidaResultados resultados = new SalidaResultados(salida,estudiantesEnProceso);
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada,StandardCharsets.UTF_8));
+
+        String estudiante = null;
+        List<RespuestaEstudiante> respuestas = new ArrayList<>();
+        Set<String> terminados = ultimosEstudiantes(estudiantesRecordados);
+        String linea;
+        long fila = 0;
+        while((linea = lector.readLine()) != null){
+            fila ++;
+            if(linea.trim().isEmpty()){
+                continue;
+            }
+            RespuestaEstudiante respuesta;
+            try{
+                respuesta = csv ? leerFilaCsv(linea) : objectMapper.readValue(linea,RespuestaEstudiante.class);
+            }catch (IllegalArgumentException | JsonProcessingException exception){
+                if(fila > 1 || !csv){
+                    resultados.escribirError(fila,exception.getMessage());
+                }
+                continue;
+            }
+            if(estudiante != null && !estudiante.equals(respuesta.getEstudiante())){
+                calificarEnParalelo(clave,estudiante,respuestas,resultados);
+                terminados.add(estudiante);
+                respuestas = new ArrayList<>();
+                estudiante = null;
+            }
+            // Las respuestas de cada estudiante van en filas contiguas; si reaparece ya fue calificado
+            if(terminados.contains(respuesta.getEstudiante())){
+                resultados.escribirError(fila,"Las respuestas de " + respuesta.getEstudiante() + " deben ir en filas contiguas");
+                continue;
+            }
+            estudiante = respuesta.getEstudiante();
+            respuestas.add(respuesta);
+        }
+        if(estudiante != null){
+            calificarEnParalelo(clave,estudiante,respuestas,resultados);
+        }
+        resultados.terminar();
+    }
+
+    private static Set<String> ultimosEstudiantes(int maximo){
+        return Collections.newSetFromMap(new LinkedHashMap<String,Boolean>(){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,Boolean> masAntiguo){
+                return size() > maximo;
+            }
+        });
+    }
+
+    private RespuestaEstudiante leerFilaCsv(String linea){
+        List<String> campos = LectorCsv.separar(linea);
+        if(campos.size() < 3){
+            throw new IllegalArgumentException("Se esperaban las columnas estudiante, preguntaId y respuestaDada");
+        }
+        String respuestaDada = campos.get(2).isEmpty() ? null : campos.get(2);
+        return new RespuestaEstudiante(campos.get(0).trim(),Long.valueOf(campos.get(1).trim()),respuestaDada);
+    }
+
+    private void calificarEnParalelo(ClaveRespuestas clave, String estudiante, List<RespuestaEstudiante> respuestas, SalidaResultados resultados) throws IOException {
+        resultados.reservar();
+        evaluadores.execute(() -> {
+            try{
+                ResultadoEstudiante resultado = calificar(clave,estudiante,respuestas);
+                intentoService.registrarIntento(estudiante,resultado);
+                resultados.escribir(resultado);
+            }catch (RuntimeException exception){
+                log.error("No se pudo calificar a {}",estudiante,exception);
+                resultados.escribirErrorDeEstudiante(estudiante,exception.getMessage());
+            }finally {
+                resultados.liberar();
+            }
+        });
+    }
+
+    private ResultadoEstudiante calificar(ClaveRespuestas clave, String estudiante, List<RespuestaEstudiante> respuestas){
+        double puntosMaximos = 0;
+        int correctas = 0;
+        int intentos = 0;
+
+        for(int i = 0, n = respuestas.size(); i < n; i++){
+            RespuestaEstudiante r = respuestas.get(i);
+            int indice = r.getPreguntaId() != null ? clave.indiceDe(r.getPreguntaId()) : -1;
+            if(clave.esCorrecta(indice,r.getRespuestaDada())){
+                correctas ++;
+                puntosMaximos += clave.getPuntos(indice);
+            }
+            if(r.getRespuestaDada() != null){
+                intentos ++;
+            }
+        }
+        return new ResultadoEstudiante(estudiante,clave.getExamenId(),puntosMaximos,correctas,intentos);
+    }
+
+    private ResultadoEvaluacion evaluarContraClave(ClaveRespuestas clave, List<Pregunta> preguntas){
+        double puntosMaximos = 0;
+        int correctas = 0;
+        int intentos = 0;
+
+        for(int i = 0, n = preguntas.size(); i < n; i++){
+            Pregunta p = preguntas.get(i);
+            int indice = p.getPreguntaId() != null ? clave.indiceDe(p.getPreguntaId()) : -1;
+            if(clave.esCorrecta(indice,p.getRespuestaDada())){
+                correctas ++;
+                puntosMaximos += clave.getPuntos(indice);
+            }
+            if(p.getRespuestaDada() != null){
+                intentos ++;
+            }
+        }
+        return new ResultadoEvaluacion(clave.getExamenId(),puntosMaximos,correctas,intentos);
+    }
+
+    private ClaveRespuestas compilarClaveDelEnvio(List<Pregunta> preguntas){
+        Set<Long> preguntaIds = new HashSet<>();
+        for(Pregunta p : preguntas){
+            if(p.getPreguntaId() != null){
+                preguntaIds.add(p.getPreguntaId());
+            }
+        }
+        if(preguntaIds.isEmpty()){
+            return ClaveRespuestas.compilar(0,new ArrayList<>());
+        }
+        List<RespuestaCorrecta> respuestasCorrectas = preguntaRepository.findRespuestasCorrectas(preguntaIds);
+        long examenId = respuestasCorrectas.isEmpty() || respuestasCorrectas.get(0).getExamenId() == null ? 0 : respuestasCorrectas.get(0).getExamenId();
+        return ClaveRespuestas.compilar(examenId,respuestasCorrectas);
+    }
+
+    private Long examenIdDe(List<Pregunta> preguntas){
+        if(preguntas.isEmpty() || preguntas.get(0).getExamen() == null){
+            return null;
+        }
+        return preguntas.get(0).getExamen().getExamenId();
+    }
+
+    private class SalidaResultados {
+
+        private final OutputStream salida;
+        private final Semaphore enProceso;
+        private final int maximoEnProceso;
+        private volatile IOException error;
+
+        private SalidaResultados(OutputStream salida, int maximoEnProceso) {
+            this.salida = salida;
+            this.maximoEnProceso = maximoEnProceso;
+            this.enProceso = new Semaphore(maximoEnProceso);
+        }
+
+        private void reservar() throws IOException {
+            verificar();
+            enProceso.acquireUninterruptibly();
+        }
+
+        private void liberar(){
+            enProceso.release();
+        }
+
+        private void escribir(Object resultado){
+            try{
+                byte[] json = objectMapper.writeValueAsBytes(resultado);
+                synchronized (salida){
+                    salida.write(json);
+                    salida.write('\n');
+                }
+            }catch (IOException exception){
+                error = exception;
+            }
+        }
+
+        private void escribirError(long fila, String mensaje){
+            Map<String,Object> error = new LinkedHashMap<>();
+            error.put("fila",fila);
+            error.put("error",mensaje);
+            escribir(error);
+        }
+
+        private void escribirErrorDeEstudiante(String estudiante, String mensaje){
+            Map<String,Object> error = new LinkedHashMap<>();
+            error.put("estudiante",estudiante);
+            error.put("error",mensaje != null ? mensaje : "No se pudo calificar al estudiante");
+            escribir(error);
+        }
+
+        private void terminar() throws IOException {
+            enProceso.acquireUninterruptibly(maximoEnProceso);
+            enProceso.release(maximoEnProceso);
+            verificar();
+            synchronized (salida){
+                salida.flush();
+            }
+        }
+
+        private void verificar() throws IOException {
+            if(error != null){
+                throw error;
+            }
+        }
+    }
+}
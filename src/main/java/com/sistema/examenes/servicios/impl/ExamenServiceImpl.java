@@ -2,9 +2,14 @@ package com.sistema.examenes.servicios.impl;
 
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pagina;
 import com.sistema.examenes.repositorios.ExamenRepository;
 import com.sistema.examenes.servicios.ExamenService;
+import com.sistema.examenes.servicios.ExamenesModificadosEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.LinkedHashSet;
@@ -17,14 +22,48 @@ public class ExamenServiceImpl implements ExamenService {
     @Autowired
     private ExamenRepository examenRepository;
 
+    @Autowired
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    @Autowired
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @Autowired
+    private VersionesCatalogo versionesCatalogo;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Autowired
+    private EliminacionMasiva eliminacionMasiva;
+
+    @Value("${examenes.paginacion.limite-maximo:200}")
+    private int limiteMaximo;
+
     @Override
     public Examen agregarExamen(Examen examen) {
-        return examenRepository.save(examen);
+        examen.setVersion(null);
+        calcularPlanDePuntaje(examen);
+        Examen examenGuardado = examenRepository.save(examen);
+        indiceBusqueda.indexarExamen(examenGuardado);
+        versionesCatalogo.incrementar(VersionesCatalogo.EXAMENES);
+        eventPublisher.publishEvent(new ExamenesModificadosEvent(examenGuardado.getExamenId()));
+        return examenGuardado;
     }
 
     @Override
     public Examen actualizarExamen(Examen examen) {
-        return examenRepository.save(examen);
+        examen.setVersion(versionGuardada(examen.getExamenId()));
+        calcularPlanDePuntaje(examen);
+        Examen examenActualizado = examenRepository.save(examen);
+        invalidarCaches(examenActualizado.getExamenId());
+        indiceBusqueda.indexarExamen(examenActualizado);
+        versionesCatalogo.incrementar(VersionesCatalogo.EXAMENES);
+        eventPublisher.publishEvent(new ExamenesModificadosEvent(examenActualizado.getExamenId()));
+        return examenActualizado;
     }
 
     @Override
@@ -32,6 +71,25 @@ public class ExamenServiceImpl implements ExamenService {
         return new LinkedHashSet<>(examenRepository.findAll());
     }
 
+    @Override
+    public Pagina<Examen> obtenerExamenes(Long cursor, Integer limite, Boolean activo, Long categoriaId) {
+        int tamano = Pagina.limitar(limite,limiteMaximo);
+        long desde = Pagina.cursorInicial(cursor);
+        PageRequest pageRequest = PageRequest.of(0,tamano + 1);
+
+        List<Examen> filas;
+        if(categoriaId != null && activo != null){
+            filas = examenRepository.findByCategoriaCategoriaIdAndActivoAndExamenIdGreaterThanOrderByExamenIdAsc(categoriaId,activo,desde,pageRequest);
+        }else if(categoriaId != null){
+            filas = examenRepository.findByCategoriaCategoriaIdAndExamenIdGreaterThanOrderByExamenIdAsc(categoriaId,desde,pageRequest);
+        }else if(activo != null){
+            filas = examenRepository.findByActivoAndExamenIdGreaterThanOrderByExamenIdAsc(activo,desde,pageRequest);
+        }else{
+            filas = examenRepository.findByExamenIdGreaterThanOrderByExamenIdAsc(desde,pageRequest);
+        }
+        return Pagina.de(filas,tamano,Examen::getExamenId);
+    }
+
     @Override
     public Examen obtenerExamen(Long examenId) {
         return examenRepository.findById(examenId).get();
@@ -39,9 +97,11 @@ public class ExamenServiceImpl implements ExamenService {
 
     @Override
     public void eliminarExamen(Long examenId) {
-        Examen examen = new Examen();
-        examen.setExamenId(examenId);
-        examenRepository.delete(examen);
+        eliminacionMasiva.eliminarExamen(examenId);
+        invalidarCaches(examenId);
+        indiceBusqueda.eliminarExamen(examenId);
+        versionesCatalogo.incrementar(VersionesCatalogo.EXAMENES);
+        eventPublisher.publishEvent(new ExamenesModificadosEvent(examenId));
     }
 
     @Override
@@ -58,4 +118,24 @@ public class ExamenServiceImpl implements ExamenService {
     public List<Examen> obtenerExamenesActivosDeUnaCategoria(Categoria categoria) {
         return examenRepository.findByCategoriaAndActivo(categoria,true);
     }
+
+    private void calcularPlanDePuntaje(Examen examen){
+        if(examen.getPuntosMaximos() == null || examen.getNumeroDePreguntas() == null || examen.getNumeroDePreguntas() <= 0){
+            examen.setPuntosPorPregunta(null);
+            return;
+        }
+        examen.setPuntosPorPregunta(examen.getPuntosMaximos()/examen.getNumeroDePreguntas());
+    }
+
+    private Long versionGuardada(Long examenId){
+        if(examenId == null){
+            return null;
+        }
+        return examenRepository.findById(examenId).map(Examen::getVersion).orElse(null);
+    }
+
+    private void invalidarCaches(Long examenId){
+        cacheClavesRespuestas.invalidar(examenId);
+        cacheInstantaneasPreguntas.invalidar(examenId);
+    }
 }
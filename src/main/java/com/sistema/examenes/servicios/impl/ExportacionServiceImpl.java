@@ -0,0 +1,162 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.IntentoExportado;
+import com.sistema.examenes.modelo.PreguntaExportada;
+import com.sistema.examenes.repositorios.CategoriaRepository;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.IntentoRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.ExportacionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Service
+public class ExportacionServiceImpl implements ExportacionService {
+
+    private static final String[] COLUMNAS_PREGUNTAS = {"preguntaId","examenId","contenido","imagen","opcion1","opcion2",
+            "opcion3","opcion4","respuesta","peso","puntos"};
+
+    private static final String[] COLUMNAS_INTENTOS = {"intentoId","username","examenId","puntosMaximos",
+            "respuestasCorrectas","intentos","fecha"};
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private IntentoRepository intentoRepository;
+
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate lectura;
+
+    @PostConstruct
+    public void iniciar(){
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    @Override
+    public boolean existeExamen(Long examenId) {
+        return examenRepository.existsById(examenId);
+    }
+
+    @Override
+    public boolean existeCategoria(Long categoriaId) {
+        return categoriaRepository.existsById(categoriaId);
+    }
+
+    @Override
+    public void exportarPreguntasDelExamen(Long examenId, String formato, OutputStream salida) throws IOException {
+        exportar(() -> preguntaRepository.streamPreguntasParaExportar(examenId),COLUMNAS_PREGUNTAS,this::valoresDePregunta,formato,salida);
+    }
+
+    @Override
+    public void exportarPreguntasDeLaCategoria(Long categoriaId, String formato, OutputStream salida) throws IOException {
+        exportar(() -> preguntaRepository.streamPreguntasParaExportarDeLaCategoria(categoriaId),COLUMNAS_PREGUNTAS,this::valoresDePregunta,formato,salida);
+    }
+
+    @Override
+    public void exportarResultadosDelExamen(Long examenId, String formato, OutputStream salida) throws IOException {
+        exportar(() -> intentoRepository.streamIntentosParaExportar(examenId),COLUMNAS_INTENTOS,this::valoresDeIntento,formato,salida);
+    }
+
+    // Las filas se leen con un cursor dentro de una transacción de solo lectura y se escriben a medida que llegan,
+    // así la memoria usada no depende del tamaño del banco
+    private <T> void exportar(Supplier<Stream<T>> consulta, String[] columnas, Function<T,Object[]> valores, String formato, OutputStream salida) throws IOException {
+        try{
+            lectura.executeWithoutResult(estado -> {
+                try(Stream<T> filas = consulta.get()){
+                    Iterator<Object[]> iterador = filas.map(valores).iterator();
+                    if(CSV.equals(formato)){
+                        escribirCsv(columnas,iterador,salida);
+                    }else{
+                        escribirJson(columnas,iterador,NDJSON.equals(formato),salida);
+                    }
+                }catch (IOException exception){
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        }catch (UncheckedIOException exception){
+            throw exception.getCause();
+        }
+    }
+
+    private void escribirJson(String[] columnas, Iterator<Object[]> filas, boolean porLinea, OutputStream salida) throws IOException {
+        JsonGenerator generador = objectMapper.getFactory().createGenerator(salida);
+        generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generador.setRootValueSeparator(null);
+        if(!porLinea){
+            generador.writeStartArray();
+        }
+        while(filas.hasNext()){
+            Object[] fila = filas.next();
+            generador.writeStartObject();
+            for(int i = 0; i < columnas.length; i++){
+                generador.writeFieldName(columnas[i]);
+                generador.writeObject(fila[i]);
+            }
+            generador.writeEndObject();
+            if(porLinea){
+                generador.writeRaw('\n');
+            }
+        }
+        if(!porLinea){
+            generador.writeEndArray();
+        }
+        generador.close();
+    }
+
+    private void escribirCsv(String[] columnas, Iterator<Object[]> filas, OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida,StandardCharsets.UTF_8));
+        escritor.write(String.join(",",columnas));
+        escritor.write('\n');
+        while(filas.hasNext()){
+            Object[] fila = filas.next();
+            for(int i = 0; i < fila.length; i++){
+                if(i > 0){
+                    escritor.write(',');
+                }
+                escritor.write(LectorCsv.escapar(fila[i]));
+            }
+            escritor.write('\n');
+        }
+        escritor.flush();
+    }
+
+    private Object[] valoresDePregunta(PreguntaExportada p){
+        return new Object[]{p.getPreguntaId(),p.getExamenId(),p.getContenido(),p.getImagen(),p.getOpcion1(),p.getOpcion2(),
+                p.getOpcion3(),p.getOpcion4(),p.getRespuesta(),p.getPeso(),p.getPuntos()};
+    }
+
+    private Object[] valoresDeIntento(IntentoExportado i){
+        return new Object[]{i.getIntentoId(),i.getUsername(),i.getExamenId(),i.getPuntosMaximos(),i.getRespuestasCorrectas(),
+                i.getIntentos(),i.getFecha() != null ? i.getFecha().toString() : null};
+    }
+}
@@ -0,0 +1,265 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.ResultadoImportacion;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.servicios.ImportacionPreguntasService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ImportacionPreguntasServiceImpl implements ImportacionPreguntasService {
+
+    private static final String INSERTAR_PREGUNTA = "insert into preguntas " +
+            "(contenido, imagen, opcion1, opcion2, opcion3, opcion4, respuesta, peso, puntos, examen_examen_id) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] COLUMNAS_OBLIGATORIAS = {"contenido","opcion1","opcion2","respuesta"};
+    private static final int LARGO_CONTENIDO = 5000;
+    private static final int LARGO_CAMPO = 255;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    @Autowired
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Value("${examenes.importacion.lote:1000}")
+    private int tamanoLote;
+
+    @Value("${examenes.importacion.maximo-errores:1000}")
+    private int maximoErrores;
+
+    @Override
+    public ResultadoImportacion importar(Long examenId, InputStream entrada, boolean csv) throws IOException {
+        if(!examenRepository.existsById(examenId)){
+            return null;
+        }
+        long inicio = System.nanoTime();
+        Importacion importacion = new Importacion(examenId);
+        if(csv){
+            leerCsv(entrada,importacion);
+        }else{
+            leerJson(entrada,importacion);
+        }
+        importacion.guardarLote();
+
+        ResultadoImportacion resultado = importacion.resultado;
+        if(resultado.getImportadas() > 0){
+            cacheClavesRespuestas.invalidar(examenId);
+            cacheInstantaneasPreguntas.invalidar(examenId);
+            indiceBusqueda.indexarPreguntasDelExamen(examenId);
+        }
+        resultado.setMilisegundos((System.nanoTime() - inicio) / 1_000_000);
+        return resultado;
+    }
+
+    private void leerCsv(InputStream entrada, Importacion importacion) throws IOException {
+        LectorCsv lector = new LectorCsv(new BufferedReader(new InputStreamReader(entrada,StandardCharsets.UTF_8)));
+        Map<String,Integer> columnas = null;
+        List<String> campos;
+        while((campos = lector.leerRegistro()) != null){
+            long fila = lector.getLineaDelRegistro();
+            if(columnas == null){
+                columnas = leerEncabezado(campos);
+                String faltante = columnaFaltante(columnas);
+                if(faltante != null){
+                    importacion.rechazar(fila,"Falta la columna " + faltante);
+                    return;
+                }
+                continue;
+            }
+            Pregunta pregunta = new Pregunta();
+            pregunta.setContenido(campo(campos,columnas,"contenido"));
+            pregunta.setImagen(campo(campos,columnas,"imagen"));
+            pregunta.setOpcion1(campo(campos,columnas,"opcion1"));
+            pregunta.setOpcion2(campo(campos,columnas,"opcion2"));
+            pregunta.setOpcion3(campo(campos,columnas,"opcion3"));
+            pregunta.setOpcion4(campo(campos,columnas,"opcion4"));
+            pregunta.setRespuesta(campo(campos,columnas,"respuesta"));
+            try{
+                pregunta.setPeso(numero(campo(campos,columnas,"peso")));
+                pregunta.setPuntos(numero(campo(campos,columnas,"puntos")));
+            }catch (NumberFormatException exception){
+                importacion.rechazar(fila,"Los puntos y el peso deben ser numeros");
+                continue;
+            }
+            importacion.agregar(fila,pregunta);
+        }
+    }
+
+    private void leerJson(InputStream entrada, Importacion importacion) throws IOException {
+        // Acepta un arreglo JSON o un objeto por línea, y lee un elemento a la vez
+        MappingIterator<Pregunta> filas = objectMapper.readerFor(Pregunta.class).readValues(entrada);
+        long fila = 0;
+        while(true){
+            Pregunta pregunta;
+            try{
+                if(!filas.hasNextValue()){
+                    return;
+                }
+                fila ++;
+                pregunta = filas.nextValue();
+            }catch (JsonParseException exception){
+                importacion.rechazar(fila,"JSON mal formado: " + exception.getOriginalMessage());
+                return;
+            }catch (JsonMappingException exception){
+                importacion.rechazar(fila,exception.getOriginalMessage());
+                continue;
+            }
+            importacion.agregar(fila,pregunta);
+        }
+    }
+
+    private Map<String,Integer> leerEncabezado(List<String> campos){
+        Map<String,Integer> columnas = new HashMap<>();
+        for(int i = 0; i < campos.size(); i++){
+            columnas.put(campos.get(i).trim().toLowerCase(),i);
+        }
+        return columnas;
+    }
+
+    private String columnaFaltante(Map<String,Integer> columnas){
+        for(String columna : COLUMNAS_OBLIGATORIAS){
+            if(!columnas.containsKey(columna)){
+                return columna;
+            }
+        }
+        return null;
+    }
+
+    private String campo(List<String> campos, Map<String,Integer> columnas, String nombre){
+        Integer indice = columnas.get(nombre);
+        if(indice == null || indice >= campos.size() || campos.get(indice).isEmpty()){
+            return null;
+        }
+        return campos.get(indice);
+    }
+
+    private Double numero(String valor){
+        return valor == null || valor.trim().isEmpty() ? null : Double.valueOf(valor.trim());
+    }
+
+    private String validar(Pregunta pregunta){
+        if(vacio(pregunta.getContenido())){
+            return "El contenido es obligatorio";
+        }
+        if(pregunta.getContenido().length() > LARGO_CONTENIDO){
+            return "El contenido supera los " + LARGO_CONTENIDO + " caracteres";
+        }
+        if(vacio(pregunta.getOpcion1()) || vacio(pregunta.getOpcion2())){
+            return "Se requieren al menos la opcion1 y la opcion2";
+        }
+        String[] campos = {pregunta.getImagen(),pregunta.getOpcion1(),pregunta.getOpcion2(),pregunta.getOpcion3(),pregunta.getOpcion4(),pregunta.getRespuesta()};
+        for(String campo : campos){
+            if(campo != null && campo.length() > LARGO_CAMPO){
+                return "Las opciones, la respuesta y la imagen no pueden superar los " + LARGO_CAMPO + " caracteres";
+            }
+        }
+        String respuesta = pregunta.getRespuesta();
+        if(vacio(respuesta) || !(respuesta.equals(pregunta.getOpcion1()) || respuesta.equals(pregunta.getOpcion2())
+                || respuesta.equals(pregunta.getOpcion3()) || respuesta.equals(pregunta.getOpcion4()))){
+            return "La respuesta debe coincidir con una de las opciones";
+        }
+        if((pregunta.getPeso() != null && pregunta.getPeso() < 0) || (pregunta.getPuntos() != null && pregunta.getPuntos() < 0)){
+            return "Los puntos y el peso no pueden ser negativos";
+        }
+        return null;
+    }
+
+    private boolean vacio(String valor){
+        return valor == null || valor.trim().isEmpty();
+    }
+
+    private class Importacion {
+
+        private final Long examenId;
+        private final ResultadoImportacion resultado;
+        private final List<Pregunta> lote = new ArrayList<>(tamanoLote);
+        private final List<Long> filasDelLote = new ArrayList<>(tamanoLote);
+
+        private Importacion(Long examenId) {
+            this.examenId = examenId;
+            this.resultado = new ResultadoImportacion(examenId);
+        }
+
+        private void agregar(long fila, Pregunta pregunta){
+            String error = validar(pregunta);
+            if(error != null){
+                rechazar(fila,error);
+                return;
+            }
+            lote.add(pregunta);
+            filasDelLote.add(fila);
+            if(lote.size() >= tamanoLote){
+                guardarLote();
+            }
+        }
+
+        private void rechazar(long fila, String error){
+            resultado.rechazar(fila,error,maximoErrores);
+        }
+
+        // Cada lote es una sola sentencia batch en su propia transacción; si falla, se informan sus filas y se sigue con el siguiente
+        private void guardarLote(){
+            if(lote.isEmpty()){
+                return;
+            }
+            try{
+                transactionTemplate.executeWithoutResult(estado -> jdbcTemplate.batchUpdate(INSERTAR_PREGUNTA,lote,lote.size(),(ps,pregunta) -> {
+                    ps.setString(1,pregunta.getContenido());
+                    ps.setString(2,pregunta.getImagen());
+                    ps.setString(3,pregunta.getOpcion1());
+                    ps.setString(4,pregunta.getOpcion2());
+                    ps.setString(5,pregunta.getOpcion3());
+                    ps.setString(6,pregunta.getOpcion4());
+                    ps.setString(7,pregunta.getRespuesta());
+                    ps.setObject(8,pregunta.getPeso(),Types.DOUBLE);
+                    ps.setObject(9,pregunta.getPuntos(),Types.DOUBLE);
+                    ps.setLong(10,examenId);
+                }));
+                resultado.sumarImportadas(lote.size());
+            }catch (DataAccessException exception){
+                for(Long fila : filasDelLote){
+                    rechazar(fila,"No se pudo guardar la pregunta: " + exception.getMostSpecificCause().getMessage());
+                }
+            }
+            lote.clear();
+            filasDelLote.clear();
+        }
+    }
+}
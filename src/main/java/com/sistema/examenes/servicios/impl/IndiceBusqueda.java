@@ -0,0 +1,360 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pagina;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.PreguntaIndexada;
+import com.sistema.examenes.modelo.ResultadoBusqueda;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.es.SpanishLightStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Component
+public class IndiceBusqueda {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusqueda.class);
+
+    public static final String PREGUNTA = "pregunta";
+    public static final String EXAMEN = "examen";
+
+    private static final String CLAVE = "clave";
+    private static final String TIPO = "tipo";
+    private static final String ID = "id";
+    private static final String EXAMEN_ID = "examenId";
+    private static final String TITULO = "titulo";
+    private static final String TEXTO = "texto";
+    private static final int LARGO_DEL_TITULO = 200;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    private final String directorio;
+    private final long intervaloCommitSegundos;
+    private final int limiteMaximo;
+    private final Analyzer analizador = new AnalizadorEspanol();
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ScheduledExecutorService programador;
+
+    // Protege el reemplazo del índice durante una reconstrucción; mientras tanto las escrituras se anotan en pendientes
+    private final Object cerrojo = new Object();
+    private List<Operacion> pendientes;
+
+    public IndiceBusqueda(@Value("${examenes.busqueda.directorio:indice-busqueda}") String directorio,
+                          @Value("${examenes.busqueda.commit-segundos:5}") long intervaloCommitSegundos,
+                          @Value("${examenes.paginacion.limite-maximo:200}") int limiteMaximo) {
+        this.directorio = directorio;
+        this.intervaloCommitSegundos = intervaloCommitSegundos;
+        this.limiteMaximo = limiteMaximo;
+    }
+
+    @PostConstruct
+    public void abrir() throws IOException {
+        IndexWriterConfig configuracion = new IndexWriterConfig(analizador);
+        configuracion.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(FSDirectory.open(Paths.get(directorio)),configuracion);
+        searcherManager = new SearcherManager(writer,null);
+
+        programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea,"indice-busqueda");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::confirmar,intervaloCommitSegundos,intervaloCommitSegundos,TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void cerrar() throws IOException {
+        if(programador != null){
+            programador.shutdown();
+        }
+        if(writer != null){
+            searcherManager.close();
+            writer.close();
+        }
+    }
+
+    public void indexarPregunta(Pregunta pregunta){
+        Long examenId = pregunta.getExamen() != null ? pregunta.getExamen().getExamenId() : null;
+        actualizar(PREGUNTA,pregunta.getPreguntaId(),documentoDePregunta(pregunta.getPreguntaId(),examenId,pregunta.getContenido(),
+                pregunta.getOpcion1(),pregunta.getOpcion2(),pregunta.getOpcion3(),pregunta.getOpcion4()));
+    }
+
+    public void indexarExamen(Examen examen){
+        actualizar(EXAMEN,examen.getExamenId(),documentoDeExamen(examen));
+    }
+
+    public void eliminarPregunta(Long preguntaId){
+        eliminar(new Term(CLAVE,PREGUNTA + "-" + preguntaId));
+    }
+
+    public void eliminarExamen(Long examenId){
+        eliminar(new Term(CLAVE,EXAMEN + "-" + examenId),new Term(EXAMEN_ID,String.valueOf(examenId)));
+    }
+
+    @Transactional(readOnly = true)
+    public long indexarPreguntasDelExamen(Long examenId){
+        long documentos = 0;
+        try(Stream<PreguntaIndexada> preguntas = preguntaRepository.streamPreguntasParaIndiceDelExamen(examenId)){
+            Iterator<PreguntaIndexada> iterador = preguntas.iterator();
+            while(iterador.hasNext()){
+                PreguntaIndexada p = iterador.next();
+                Term clave = new Term(CLAVE,PREGUNTA + "-" + p.getPreguntaId());
+                Document documento = documentoDePregunta(p.getPreguntaId(),p.getExamenId(),p.getContenido(),
+                        p.getOpcion1(),p.getOpcion2(),p.getOpcion3(),p.getOpcion4());
+                aplicar(indice -> indice.updateDocument(clave,documento),false);
+                documentos ++;
+            }
+            refrescar();
+        } catch (IOException e) {
+            log.warn("No se pudieron indexar las preguntas del examen {}",examenId,e);
+        }
+        return documentos;
+    }
+
+    @Transactional(readOnly = true)
+    public long reconstruir() throws IOException {
+        synchronized (cerrojo){
+            if(pendientes != null){
+                throw new IllegalStateException("Ya hay una reconstruccion del indice en curso");
+            }
+            pendientes = new ArrayList<>();
+        }
+        // El índice nuevo se arma aparte; las búsquedas siguen usando el actual hasta el reemplazo
+        Path temporal = Files.createTempDirectory("indice-busqueda-");
+        try(Directory nuevo = FSDirectory.open(temporal)){
+            long documentos = 0;
+            try(IndexWriter construccion = new IndexWriter(nuevo,new IndexWriterConfig(analizador))){
+                for(Examen examen : examenRepository.findAll()){
+                    construccion.addDocument(documentoDeExamen(examen));
+                    documentos ++;
+                }
+                try(Stream<PreguntaIndexada> preguntas = preguntaRepository.streamPreguntasParaIndice()){
+                    Iterator<PreguntaIndexada> iterador = preguntas.iterator();
+                    while(iterador.hasNext()){
+                        PreguntaIndexada p = iterador.next();
+                        construccion.addDocument(documentoDePregunta(p.getPreguntaId(),p.getExamenId(),p.getContenido(),
+                                p.getOpcion1(),p.getOpcion2(),p.getOpcion3(),p.getOpcion4()));
+                        documentos ++;
+                    }
+                }
+                construccion.commit();
+            }
+            synchronized (cerrojo){
+                writer.deleteAll();
+                writer.addIndexes(nuevo);
+                // Las escrituras hechas durante la construcción se repiten para que no reaparezcan borrados ni se pierdan cambios
+                for(Operacion operacion : pendientes){
+                    operacion.aplicar(writer);
+                }
+                writer.commit();
+                searcherManager.maybeRefresh();
+            }
+            return documentos;
+        } finally {
+            synchronized (cerrojo){
+                pendientes = null;
+            }
+            borrar(temporal);
+        }
+    }
+
+    public Pagina<ResultadoBusqueda> buscar(String consulta, String tipo, Long desde, Integer limite) throws IOException {
+        int tamano = Pagina.limitar(limite,limiteMaximo);
+        int inicio = (int) Math.min(Pagina.cursorInicial(desde),10_000);
+
+        Map<String,Float> campos = new HashMap<>();
+        campos.put(TITULO,2.0f);
+        campos.put(TEXTO,1.0f);
+        SimpleQueryParser parser = new SimpleQueryParser(analizador,campos);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query texto = parser.parse(consulta);
+        Query query = texto;
+        if(tipo != null){
+            query = new BooleanQuery.Builder()
+                    .add(texto,BooleanClause.Occur.MUST)
+                    .add(new TermQuery(new Term(TIPO,tipo)),BooleanClause.Occur.FILTER)
+                    .build();
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs encontrados = searcher.search(query,inicio + tamano + 1);
+            List<ResultadoBusqueda> resultados = new ArrayList<>(tamano + 1);
+            ScoreDoc[] documentos = encontrados.scoreDocs;
+            for(int i = inicio; i < documentos.length; i++){
+                Document documento = searcher.doc(documentos[i].doc);
+                String examenId = documento.get(EXAMEN_ID);
+                resultados.add(new ResultadoBusqueda(documento.get(TIPO),Long.valueOf(documento.get(ID)),
+                        examenId != null ? Long.valueOf(examenId) : null,documento.get(TITULO),documentos[i].score));
+            }
+            if(resultados.size() > tamano){
+                return new Pagina<>(resultados.subList(0,tamano),(long) inicio + tamano);
+            }
+            return new Pagina<>(resultados,null);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private Document documentoDePregunta(Long preguntaId, Long examenId, String contenido, String... opciones){
+        Document documento = documentoBase(PREGUNTA,preguntaId,examenId,contenido);
+        StringBuilder texto = new StringBuilder();
+        for(String opcion : opciones){
+            if(opcion != null){
+                texto.append(opcion).append('\n');
+            }
+        }
+        documento.add(new TextField(TEXTO,texto.toString(),Field.Store.NO));
+        return documento;
+    }
+
+    private Document documentoDeExamen(Examen examen){
+        Document documento = documentoBase(EXAMEN,examen.getExamenId(),null,examen.getTitulo());
+        documento.add(new TextField(TEXTO,examen.getDescripcion() != null ? examen.getDescripcion() : "",Field.Store.NO));
+        return documento;
+    }
+
+    private Document documentoBase(String tipo, Long id, Long examenId, String titulo){
+        String textoTitulo = titulo != null ? titulo : "";
+        Document documento = new Document();
+        documento.add(new StringField(CLAVE,tipo + "-" + id,Field.Store.NO));
+        documento.add(new StringField(TIPO,tipo,Field.Store.YES));
+        documento.add(new StoredField(ID,String.valueOf(id)));
+        if(examenId != null){
+            documento.add(new StringField(EXAMEN_ID,String.valueOf(examenId),Field.Store.YES));
+        }
+        documento.add(new TextField(TITULO,textoTitulo,Field.Store.NO));
+        documento.add(new StoredField(TITULO,textoTitulo.length() > LARGO_DEL_TITULO ? textoTitulo.substring(0,LARGO_DEL_TITULO) : textoTitulo));
+        return documento;
+    }
+
+    private void actualizar(String tipo, Long id, Document documento){
+        Term clave = new Term(CLAVE,tipo + "-" + id);
+        try {
+            aplicar(indice -> indice.updateDocument(clave,documento),true);
+        } catch (IOException e) {
+            log.warn("No se pudo indexar {} {}",tipo,id,e);
+        }
+    }
+
+    private void eliminar(Term... terminos){
+        try {
+            aplicar(indice -> indice.deleteDocuments(terminos),true);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar del indice {}",(Object) terminos,e);
+        }
+    }
+
+    private void aplicar(Operacion operacion, boolean refrescar) throws IOException {
+        synchronized (cerrojo){
+            operacion.aplicar(writer);
+            if(pendientes != null){
+                pendientes.add(operacion);
+            }
+            if(refrescar){
+                searcherManager.maybeRefresh();
+            }
+        }
+    }
+
+    private void refrescar() throws IOException {
+        synchronized (cerrojo){
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    private void confirmar(){
+        try {
+            synchronized (cerrojo){
+                if(writer.hasUncommittedChanges()){
+                    writer.commit();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo confirmar el indice de busqueda",e);
+        }
+    }
+
+    private void borrar(Path temporal){
+        try(Stream<Path> rutas = Files.walk(temporal)){
+            rutas.sorted(Comparator.reverseOrder()).forEach(ruta -> ruta.toFile().delete());
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el directorio temporal {}",temporal,e);
+        }
+    }
+
+    private interface Operacion {
+        void aplicar(IndexWriter indice) throws IOException;
+    }
+
+    private static final class AnalizadorEspanol extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String campo) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            TokenStream flujo = new LowerCaseFilter(tokenizer);
+            flujo = new StopFilter(flujo,SpanishAnalyzer.getDefaultStopSet());
+            flujo = new ASCIIFoldingFilter(flujo);
+            flujo = new SpanishLightStemFilter(flujo);
+            return new TokenStreamComponents(tokenizer,flujo);
+        }
+
+        @Override
+        protected TokenStream normalize(String campo, TokenStream flujo) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(flujo));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.PreguntaEstudiante;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+public final class InstantaneaPreguntas {
+
+    private static final byte[][] CAMPOS_OPCION = {
+            ",\"opcion1\":".getBytes(StandardCharsets.UTF_8),
+            ",\"opcion2\":".getBytes(StandardCharsets.UTF_8),
+            ",\"opcion3\":".getBytes(StandardCharsets.UTF_8),
+            ",\"opcion4\":".getBytes(StandardCharsets.UTF_8)};
+
+    private final Long examenId;
+    private final Integer numeroDePreguntas;
+    private final long[] preguntaIds;
+    private final byte[][] inicios;
+    private final byte[][][] opciones;
+    private final long tamanoEnBytes;
+
+    private InstantaneaPreguntas(Long examenId, Integer numeroDePreguntas, long[] preguntaIds, byte[][] inicios,
+                                 byte[][][] opciones, long tamanoEnBytes) {
+        this.examenId = examenId;
+        this.numeroDePreguntas = numeroDePreguntas;
+        this.preguntaIds = preguntaIds;
+        this.inicios = inicios;
+        this.opciones = opciones;
+        this.tamanoEnBytes = tamanoEnBytes;
+    }
+
+    public static InstantaneaPreguntas construir(Long examenId, Integer numeroDePreguntas, Collection<PreguntaEstudiante> preguntas,
+                                                 ObjectMapper objectMapper) throws JsonProcessingException {
+        PreguntaEstudiante[] ordenadas = preguntas.toArray(new PreguntaEstudiante[0]);
+        Arrays.sort(ordenadas,(a,b) -> Long.compare(a.getPreguntaId(),b.getPreguntaId()));
+
+        long[] preguntaIds = new long[ordenadas.length];
+        byte[][] inicios = new byte[ordenadas.length][];
+        byte[][][] opciones = new byte[ordenadas.length][][];
+        long tamanoEnBytes = 0;
+
+        for(int i = 0; i < ordenadas.length; i++){
+            PreguntaEstudiante p = ordenadas[i];
+            preguntaIds[i] = p.getPreguntaId();
+            inicios[i] = ("{\"preguntaId\":" + p.getPreguntaId()
+                    + ",\"contenido\":" + objectMapper.writeValueAsString(p.getContenido())
+                    + ",\"imagen\":" + objectMapper.writeValueAsString(p.getImagen())).getBytes(StandardCharsets.UTF_8);
+            opciones[i] = new byte[][]{
+                    objectMapper.writeValueAsBytes(p.getOpcion1()),
+                    objectMapper.writeValueAsBytes(p.getOpcion2()),
+                    objectMapper.writeValueAsBytes(p.getOpcion3()),
+                    objectMapper.writeValueAsBytes(p.getOpcion4())};
+            tamanoEnBytes += inicios[i].length + 50;
+            for(byte[] opcion : opciones[i]){
+                tamanoEnBytes += opcion.length;
+            }
+        }
+        return new InstantaneaPreguntas(examenId,numeroDePreguntas,preguntaIds,inicios,opciones,tamanoEnBytes);
+    }
+
+    public int indiceDe(long preguntaId){
+        return Arrays.binarySearch(preguntaIds,preguntaId);
+    }
+
+    public void escribir(int indice, int[] permutacion, ByteArrayOutputStream salida){
+        salida.write(inicios[indice],0,inicios[indice].length);
+        for(int opcion = 0; opcion < 4; opcion++){
+            byte[] valor = opciones[indice][permutacion[opcion]];
+            salida.write(CAMPOS_OPCION[opcion],0,CAMPOS_OPCION[opcion].length);
+            salida.write(valor,0,valor.length);
+        }
+        salida.write('}');
+    }
+
+    public int cantidadDeOpciones(int indice){
+        byte[][] opcionesDePregunta = opciones[indice];
+        int cantidad = 0;
+        while(cantidad < 4 && !esNulo(opcionesDePregunta[cantidad])){
+            cantidad ++;
+        }
+        return cantidad;
+    }
+
+    private static boolean esNulo(byte[] valor){
+        return valor.length == 4 && valor[0] == 'n' && valor[1] == 'u' && valor[2] == 'l' && valor[3] == 'l';
+    }
+
+    public int tamanoEstimadoDeRespuesta(int cantidad){
+        return tamanoPromedio() * cantidad + 2;
+    }
+
+    private int tamanoPromedio(){
+        return preguntaIds.length == 0 ? 0 : (int) (tamanoEnBytes / preguntaIds.length);
+    }
+
+    public Long getExamenId() {
+        return examenId;
+    }
+
+    public Integer getNumeroDePreguntas() {
+        return numeroDePreguntas;
+    }
+
+    public int getCantidadDePreguntas() {
+        return preguntaIds.length;
+    }
+
+    public long getPreguntaId(int indice) {
+        return preguntaIds[indice];
+    }
+
+    public long getTamanoEnBytes() {
+        return tamanoEnBytes;
+    }
+}
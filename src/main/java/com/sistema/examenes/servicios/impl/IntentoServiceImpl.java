@@ -0,0 +1,153 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.sistema.examenes.modelo.Intento;
+import com.sistema.examenes.modelo.ResultadoEvaluacion;
+import com.sistema.examenes.servicios.IntentoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class IntentoServiceImpl implements IntentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(IntentoServiceImpl.class);
+
+    private static final String INSERTAR_INTENTO = "insert into intentos " +
+            "(username, examen_id, puntos_maximos, respuestas_correctas, intentos, fecha) values (?, ?, ?, ?, ?, ?)";
+
+    private static final long ESPERA_AL_DETENER_SEGUNDOS = 30;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final BlockingQueue<Intento> buffer;
+    private final int tamanoLote;
+    private final long intervaloMs;
+    private final ReentrantLock vaciando = new ReentrantLock();
+    private ScheduledExecutorService programador;
+    private Timer latenciaVaciado;
+    private Counter descartados;
+
+    public IntentoServiceImpl(@Value("${examenes.intentos.buffer.capacidad:50000}") int capacidad,
+                              @Value("${examenes.intentos.buffer.lote:500}") int tamanoLote,
+                              @Value("${examenes.intentos.buffer.intervalo-ms:500}") long intervaloMs) {
+        this.buffer = new ArrayBlockingQueue<>(capacidad);
+        this.tamanoLote = tamanoLote;
+        this.intervaloMs = intervaloMs;
+    }
+
+    @PostConstruct
+    public void iniciar(){
+        Gauge.builder("intentos.buffer.profundidad",buffer,BlockingQueue::size).register(meterRegistry);
+        latenciaVaciado = Timer.builder("intentos.buffer.vaciado").register(meterRegistry);
+        descartados = Counter.builder("intentos.buffer.descartados").register(meterRegistry);
+
+        programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea,"buffer-intentos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::vaciar,intervaloMs,intervaloMs,TimeUnit.MILLISECONDS);
+    }
+
+    // Espera el vaciado en curso y guarda lo que quede antes de que se cierre el DataSource
+    @PreDestroy
+    public void detener(){
+        if(programador != null){
+            programador.shutdown();
+            try{
+                if(!programador.awaitTermination(ESPERA_AL_DETENER_SEGUNDOS,TimeUnit.SECONDS)){
+                    log.warn("El vaciado de intentos no terminó en {} segundos",ESPERA_AL_DETENER_SEGUNDOS);
+                }
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+        }
+        vaciando.lock();
+        try{
+            vaciarPendientes();
+        }finally {
+            vaciando.unlock();
+        }
+    }
+
+    @Override
+    public void registrarIntento(String username, ResultadoEvaluacion resultado) {
+        Intento intento = new Intento(username,resultado.getExamenId(),resultado.getPuntosMaximos(),
+                resultado.getRespuestasCorrectas(),resultado.getIntentos(),LocalDateTime.now());
+        if(buffer.offer(intento)){
+            if(buffer.size() >= tamanoLote && programador != null && !programador.isShutdown()){
+                try{
+                    programador.execute(this::vaciar);
+                }catch (RejectedExecutionException exception){
+                    // El servicio se está deteniendo: el intento queda en el buffer para el vaciado final
+                }
+            }
+            return;
+        }
+        descartados.increment();
+        log.warn("Buffer de intentos lleno, se descarta el intento de {}",username);
+    }
+
+    public void vaciar(){
+        if(!vaciando.tryLock()){
+            return;
+        }
+        try{
+            vaciarPendientes();
+        }finally {
+            vaciando.unlock();
+        }
+    }
+
+    private void vaciarPendientes(){
+        List<Intento> lote = new ArrayList<>(tamanoLote);
+        while(buffer.drainTo(lote,tamanoLote) > 0){
+            insertar(lote);
+            lote.clear();
+        }
+    }
+
+    private void insertar(List<Intento> lote){
+        long inicio = System.nanoTime();
+        try{
+            jdbcTemplate.batchUpdate(INSERTAR_INTENTO,lote,lote.size(),(ps,intento) -> {
+                ps.setString(1,intento.getUsername());
+                ps.setObject(2,intento.getExamenId());
+                ps.setDouble(3,intento.getPuntosMaximos());
+                ps.setInt(4,intento.getRespuestasCorrectas());
+                ps.setInt(5,intento.getIntentos());
+                ps.setTimestamp(6,Timestamp.valueOf(intento.getFecha()));
+            });
+        }catch (Exception exception){
+            descartados.increment(lote.size());
+            log.error("No se pudieron guardar {} intentos",lote.size(),exception);
+        }finally {
+            latenciaVaciado.record(System.nanoTime() - inicio,TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.sistema.examenes.servicios.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class LectorCsv {
+
+    private final BufferedReader lector;
+    private long linea;
+    private long lineaDelRegistro;
+
+    public LectorCsv(BufferedReader lector){
+        this.lector = lector;
+    }
+
+    // Un registro puede ocupar varias líneas cuando un campo entre comillas contiene saltos de línea
+    public List<String> leerRegistro() throws IOException {
+        String texto;
+        do{
+            texto = lector.readLine();
+            if(texto == null){
+                return null;
+            }
+            linea ++;
+        }while(texto.trim().isEmpty());
+        lineaDelRegistro = linea;
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = separar(texto,campos,campo,false);
+        while(entreComillas && (texto = lector.readLine()) != null){
+            linea ++;
+            campo.append('\n');
+            entreComillas = separar(texto,campos,campo,true);
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    public long getLineaDelRegistro() {
+        return lineaDelRegistro;
+    }
+
+    public static List<String> separar(String linea){
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        separar(linea,campos,campo,false);
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static boolean separar(String linea, List<String> campos, StringBuilder campo, boolean entreComillas){
+        for(int i = 0; i < linea.length(); i++){
+            char c = linea.charAt(i);
+            if(entreComillas){
+                if(c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"'){
+                    campo.append('"');
+                    i++;
+                }else if(c == '"'){
+                    entreComillas = false;
+                }else{
+                    campo.append(c);
+                }
+            }else if(c == '"'){
+                entreComillas = true;
+            }else if(c == ','){
+                campos.add(campo.toString());
+                campo.setLength(0);
+            }else{
+                campo.append(c);
+            }
+        }
+        return entreComillas;
+    }
+
+    public static String escapar(Object valor){
+        if(valor == null){
+            return "";
+        }
+        String campo = valor.toString();
+        if(campo.indexOf(',') < 0 && campo.indexOf('"') < 0 && campo.indexOf('\n') < 0 && campo.indexOf('\r') < 0){
+            return campo;
+        }
+        return '"' + campo.replace("\"","\"\"") + '"';
+    }
+}
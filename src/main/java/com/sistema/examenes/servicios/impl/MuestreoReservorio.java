@@ -0,0 +1,37 @@
+package com.sistema.examenes.servicios.impl;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+public final class MuestreoReservorio {
+
+    private MuestreoReservorio(){
+
+    }
+
+    public static long[] muestrear(PrimitiveIterator.OfLong valores, int cantidad, Random random){
+        long[] reservorio = new long[cantidad];
+        int vistos = 0;
+        while(valores.hasNext()){
+            long valor = valores.nextLong();
+            if(vistos < cantidad){
+                reservorio[vistos] = valor;
+            }else{
+                int j = random.nextInt(vistos + 1);
+                if(j < cantidad){
+                    reservorio[j] = valor;
+                }
+            }
+            vistos ++;
+        }
+        long[] muestra = vistos < cantidad ? Arrays.copyOf(reservorio,vistos) : reservorio;
+        for(int i = muestra.length - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            long temporal = muestra[i];
+            muestra[i] = muestra[j];
+            muestra[j] = temporal;
+        }
+        return muestra;
+    }
+}
@@ -1,12 +1,17 @@
 package com.sistema.examenes.servicios.impl;
 
 import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pagina;
 import com.sistema.examenes.modelo.Pregunta;
 import com.sistema.examenes.repositorios.PreguntaRepository;
 import com.sistema.examenes.servicios.PreguntaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -15,19 +20,40 @@ public class PreguntaServiceImpl implements PreguntaService {
     @Autowired
     private PreguntaRepository preguntaRepository;
 
+    @Autowired
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    @Autowired
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Value("${examenes.paginacion.limite-maximo:200}")
+    private int limiteMaximo;
+
     @Override
     public Pregunta agregarPregunta(Pregunta pregunta) {
-        return preguntaRepository.save(pregunta);
+        Pregunta preguntaGuardada = preguntaRepository.save(pregunta);
+        invalidarCaches(examenIdDe(preguntaGuardada));
+        indiceBusqueda.indexarPregunta(preguntaGuardada);
+        return preguntaGuardada;
     }
 
     @Override
     public Pregunta actualizarPregunta(Pregunta pregunta) {
-        return preguntaRepository.save(pregunta);
+        if(pregunta.getPreguntaId() != null){
+            invalidarCaches(preguntaRepository.findExamenIdByPreguntaId(pregunta.getPreguntaId()));
+        }
+        Pregunta preguntaActualizada = preguntaRepository.save(pregunta);
+        invalidarCaches(examenIdDe(preguntaActualizada));
+        indiceBusqueda.indexarPregunta(preguntaActualizada);
+        return preguntaActualizada;
     }
 
     @Override
     public Set<Pregunta> obtenerPreguntas() {
-        return (Set<Pregunta>) preguntaRepository.findAll();
+        return new LinkedHashSet<>(preguntaRepository.findAll());
     }
 
     @Override
@@ -40,15 +66,33 @@ public class PreguntaServiceImpl implements PreguntaService {
         return preguntaRepository.findByExamen(examen);
     }
 
+    @Override
+    public Pagina<Pregunta> obtenerPreguntasDelExamen(Long examenId, Long cursor, Integer limite) {
+        int tamano = Pagina.limitar(limite,limiteMaximo);
+        List<Pregunta> filas = preguntaRepository.findByExamenExamenIdAndPreguntaIdGreaterThanOrderByPreguntaIdAsc(examenId,
+                Pagina.cursorInicial(cursor),PageRequest.of(0,tamano + 1));
+        return Pagina.de(filas,tamano,Pregunta::getPreguntaId);
+    }
+
     @Override
     public void eliminarPregunta(Long preguntaId) {
-        Pregunta pregunta = new Pregunta();
-        pregunta.setPreguntaId(preguntaId);
-        preguntaRepository.delete(pregunta);
+        Long examenId = preguntaRepository.findExamenIdByPreguntaId(preguntaId);
+        preguntaRepository.deleteById(preguntaId);
+        invalidarCaches(examenId);
+        indiceBusqueda.eliminarPregunta(preguntaId);
     }
 
     @Override
     public Pregunta listarPregunta(Long preguntaId) {
         return this.preguntaRepository.getOne(preguntaId);
     }
+
+    private Long examenIdDe(Pregunta pregunta){
+        return pregunta.getExamen() != null ? pregunta.getExamen().getExamenId() : null;
+    }
+
+    private void invalidarCaches(Long examenId){
+        cacheClavesRespuestas.invalidar(examenId);
+        cacheInstantaneasPreguntas.invalidar(examenId);
+    }
 }
@@ -0,0 +1,235 @@
+package com.sistema.examenes.servicios.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.SesionExamen;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.SesionExamenService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+@Service
+public class SesionExamenServiceImpl implements SesionExamenService {
+
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final int LONGITUD_MINIMA_SECRETO = 32;
+
+    @Value("${examenes.sesion.secreto:}")
+    private String secreto;
+
+    @Value("${examenes.sesion.duracion-minutos:180}")
+    private long duracionMinutos;
+
+    @Value("${examenes.sesion.inicios-maximo:100000}")
+    private long iniciosMaximo;
+
+    // Hora de inicio de cada sesión en curso por examen y estudiante, para que recargar el examen no reinicie el tiempo
+    private Cache<String,Date> inicios;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate lectura;
+
+    @PostConstruct
+    public void iniciar(){
+        if(secreto == null || secreto.getBytes(StandardCharsets.UTF_8).length < LONGITUD_MINIMA_SECRETO){
+            throw new IllegalStateException("La propiedad examenes.sesion.secreto debe definirse con al menos "
+                    + LONGITUD_MINIMA_SECRETO + " bytes");
+        }
+        inicios = Caffeine.newBuilder()
+                .expireAfterWrite(duracionMinutos,TimeUnit.MINUTES)
+                .maximumSize(iniciosMaximo)
+                .build();
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    @Override
+    public SesionExamen iniciarSesion(Long examenId, String username) {
+        SesionExamen sesionExamen = sortear(examenId,new Random(semilla(examenId,username)));
+        sesionExamen.setUsername(username);
+        sesionExamen.setInicio(inicios.get(examenId + ":" + username,clave -> sesionExamen.getInicio()));
+        return sesionExamen;
+    }
+
+    private SesionExamen sortear(Long examenId, Random random){
+        Optional<InstantaneaPreguntas> instantanea = cacheInstantaneasPreguntas.obtener(examenId);
+        if(instantanea.isPresent()){
+            InstantaneaPreguntas banco = instantanea.get();
+            long[] indices = MuestreoReservorio.muestrear(LongStream.range(0,banco.getCantidadDePreguntas()).iterator(),
+                    cantidadASortear(banco.getNumeroDePreguntas(),banco.getCantidadDePreguntas()),random);
+            for(int i = 0; i < indices.length; i++){
+                indices[i] = banco.getPreguntaId((int) indices[i]);
+            }
+            return armarSesion(examenId,indices,banco,random);
+        }
+        // Solo los exámenes que no caben en la cache toman una conexión para sortear desde la base de datos
+        return lectura.execute(estado -> sortearDesdeBaseDeDatos(examenId,random));
+    }
+
+    private SesionExamen sortearDesdeBaseDeDatos(Long examenId, Random random){
+        Examen examen = examenRepository.findById(examenId).get();
+        long[] preguntaIds;
+        try(Stream<Long> ids = preguntaRepository.streamPreguntaIdsDelExamen(examenId)){
+            preguntaIds = MuestreoReservorio.muestrear(ids.mapToLong(Long::longValue).iterator(),
+                    cantidadASortear(examen.getNumeroDePreguntas(),preguntaRepository.countByExamenExamenId(examenId)),random);
+        }
+        try {
+            InstantaneaPreguntas sorteadas = InstantaneaPreguntas.construir(examenId,examen.getNumeroDePreguntas(),
+                    preguntaRepository.findPreguntasParaEstudianteByIds(idsComoLista(preguntaIds)),objectMapper);
+            return armarSesion(examenId,preguntaIds,sorteadas,random);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String emitirToken(SesionExamen sesionExamen) {
+        List<Long> preguntaIds = new ArrayList<>(sesionExamen.getPreguntaIds().length);
+        StringBuilder permutaciones = new StringBuilder(sesionExamen.getPermutaciones().length);
+        for(int i = 0; i < sesionExamen.getPreguntaIds().length; i++){
+            preguntaIds.add(sesionExamen.getPreguntaIds()[i]);
+            permutaciones.append(Character.forDigit(sesionExamen.getPermutaciones()[i],36));
+        }
+
+        Date inicio = sesionExamen.getInicio();
+        return Jwts.builder()
+                .setSubject(sesionExamen.getUsername())
+                .claim("e",sesionExamen.getExamenId())
+                .claim("q",preguntaIds)
+                .claim("o",permutaciones.toString())
+                .setIssuedAt(inicio)
+                .setExpiration(new Date(inicio.getTime() + duracionMinutos * 60 * 1000))
+                .signWith(SignatureAlgorithm.HS256,secreto.getBytes(StandardCharsets.UTF_8))
+                .compact();
+    }
+
+    @Override
+    public SesionExamen validarToken(String token) {
+        if(token == null || token.isEmpty()){
+            throw new IllegalArgumentException("La sesion de examen no tiene token");
+        }
+        Claims claims = Jwts.parser().setSigningKey(secreto.getBytes(StandardCharsets.UTF_8)).parseClaimsJws(token).getBody();
+
+        Number examenId = claims.get("e",Number.class);
+        List<?> ids = claims.get("q",List.class);
+        String codigos = claims.get("o",String.class);
+        if(claims.getSubject() == null || examenId == null || ids == null || codigos == null || codigos.length() != ids.size()){
+            throw new IllegalArgumentException("La sesion de examen esta incompleta");
+        }
+        long[] preguntaIds = new long[ids.size()];
+        byte[] permutaciones = new byte[ids.size()];
+        Set<Long> vistas = new HashSet<>();
+        for(int i = 0; i < ids.size(); i++){
+            if(!(ids.get(i) instanceof Number) || !vistas.add(((Number) ids.get(i)).longValue())){
+                throw new IllegalArgumentException("La sesion de examen tiene preguntas invalidas o repetidas");
+            }
+            int codigo = Character.digit(codigos.charAt(i),36);
+            if(codigo < 0 || codigo >= SesionExamen.cantidadDePermutaciones()){
+                throw new IllegalArgumentException("La sesion de examen tiene permutaciones invalidas");
+            }
+            preguntaIds[i] = ((Number) ids.get(i)).longValue();
+            permutaciones[i] = (byte) codigo;
+        }
+        SesionExamen sesionExamen = new SesionExamen(examenId.longValue(),preguntaIds,permutaciones,claims.getIssuedAt());
+        sesionExamen.setUsername(claims.getSubject());
+        return sesionExamen;
+    }
+
+    private long semilla(Long examenId, String username){
+        return username.hashCode() * 0x9E3779B97F4A7C15L + examenId;
+    }
+
+    private SesionExamen armarSesion(Long examenId, long[] preguntaIds, InstantaneaPreguntas banco, Random random){
+        long[] entregadas = new long[preguntaIds.length];
+        byte[] permutaciones = new byte[preguntaIds.length];
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(banco.tamanoEstimadoDeRespuesta(preguntaIds.length));
+        salida.write('[');
+        int cantidad = 0;
+        for(long preguntaId : preguntaIds){
+            int indice = banco.indiceDe(preguntaId);
+            if(indice < 0){
+                continue;
+            }
+            int[] permutacion = permutacionAleatoria(banco.cantidadDeOpciones(indice),random);
+            if(cantidad > 0){
+                salida.write(',');
+            }
+            banco.escribir(indice,permutacion,salida);
+            entregadas[cantidad] = preguntaId;
+            permutaciones[cantidad] = (byte) SesionExamen.codigoDePermutacion(permutacion);
+            cantidad ++;
+        }
+        salida.write(']');
+
+        SesionExamen sesionExamen = new SesionExamen(examenId,Arrays.copyOf(entregadas,cantidad),
+                Arrays.copyOf(permutaciones,cantidad),new Date());
+        sesionExamen.setPreguntasJson(salida.toByteArray());
+        return sesionExamen;
+    }
+
+    private int cantidadASortear(Integer numeroDePreguntas, long disponibles){
+        if(numeroDePreguntas != null && numeroDePreguntas > 0){
+            return numeroDePreguntas;
+        }
+        return (int) disponibles;
+    }
+
+    private List<Long> idsComoLista(long[] ids){
+        List<Long> lista = new ArrayList<>(ids.length);
+        for(long id : ids){
+            lista.add(id);
+        }
+        return lista;
+    }
+
+    private int[] permutacionAleatoria(int cantidadDeOpciones, Random random){
+        int[] permutacion = {0,1,2,3};
+        for(int i = cantidadDeOpciones - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            int temporal = permutacion[i];
+            permutacion[i] = permutacion[j];
+            permutacion[j] = temporal;
+        }
+        return permutacion;
+    }
+}
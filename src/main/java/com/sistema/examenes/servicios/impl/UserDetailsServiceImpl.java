@@ -1,26 +1,78 @@
 package com.sistema.examenes.servicios.impl;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioDetalles;
 import com.sistema.examenes.repositorios.UsuarioRepository;
+import com.sistema.examenes.servicios.UsuarioModificadoEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    // Los usuarios inexistentes no se guardan: el cargador devuelve null y la cache no crea la entrada
+    private final LoadingCache<String,UsuarioDetalles> usuarios;
+
+    public UserDetailsServiceImpl(@Value("${examenes.usuarios.cache.maximo:10000}") long maximo,
+                                  @Value("${examenes.usuarios.cache.segundos:300}") long segundos) {
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(segundos,TimeUnit.SECONDS)
+                .recordStats()
+                .build(this::cargar);
+    }
+
+    @PostConstruct
+    public void registrarMetricas(){
+        if(meterRegistry == null){
+            return;
+        }
+        CaffeineCacheMetrics.monitor(meterRegistry,usuarios,"usuarios");
+        Gauge.builder("usuarios.cache.ratio-aciertos",usuarios,cache -> cache.stats().hitRate())
+                .register(meterRegistry);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Usuario usuario = this.usuarioRepository.findByUsername(username);
+        UsuarioDetalles usuario = usuarios.get(username);
         if(usuario == null){
             throw new UsernameNotFoundException("Usuario no encontrado");
         }
         return usuario;
     }
 
+    @EventListener
+    public void alModificarUsuario(UsuarioModificadoEvent evento){
+        if(evento.getUsername() != null){
+            usuarios.invalidate(evento.getUsername());
+        }
+        if(evento.getUsuarioId() != null){
+            usuarios.asMap().values().removeIf(usuario -> evento.getUsuarioId().equals(usuario.getId()));
+        }
+    }
+
+    private UsuarioDetalles cargar(String username){
+        Usuario usuario = this.usuarioRepository.findByUsername(username);
+        return usuario == null ? null : UsuarioDetalles.de(usuario);
+    }
+
 }
@@ -1,12 +1,15 @@
 package com.sistema.examenes.servicios.impl;
 
+import com.sistema.examenes.configuraciones.RevocacionTokens;
 import com.sistema.examenes.excepciones.UsuarioFoundException;
 import com.sistema.examenes.modelo.Usuario;
 import com.sistema.examenes.modelo.UsuarioRol;
 import com.sistema.examenes.repositorios.RolRepository;
 import com.sistema.examenes.repositorios.UsuarioRepository;
+import com.sistema.examenes.servicios.UsuarioModificadoEvent;
 import com.sistema.examenes.servicios.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
@@ -20,6 +23,12 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Autowired
     private RolRepository rolRepository;
 
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public Usuario guardarUsuario(Usuario usuario, Set<UsuarioRol> usuarioRoles) throws Exception {
         Usuario usuarioLocal = usuarioRepository.findByUsername(usuario.getUsername());
@@ -33,6 +42,7 @@ public class UsuarioServiceImpl implements UsuarioService {
             }
             usuario.getUsuarioRoles().addAll(usuarioRoles);
             usuarioLocal = usuarioRepository.save(usuario);
+            eventPublisher.publishEvent(new UsuarioModificadoEvent(usuarioLocal.getId(),usuarioLocal.getUsername()));
         }
         return usuarioLocal;
     }
@@ -45,6 +55,16 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Override
     public void eliminarUsuario(Long usuarioId) {
         usuarioRepository.deleteById(usuarioId);
+        revocacionTokens.revocar(usuarioId);
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(usuarioId,null));
     }
 
-}
\ No newline at end of file
+    @Override
+    public Usuario actualizarPerfil(String username, String perfil) {
+        Usuario usuario = usuarioRepository.findByUsername(username);
+        usuario.setPerfil(perfil);
+        Usuario usuarioActualizado = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(usuarioActualizado.getId(),username));
+        return usuarioActualizado;
+    }
+}
@@ -0,0 +1,58 @@
+package com.sistema.examenes.servicios.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+public class VersionesCatalogo {
+
+    public static final String CATEGORIAS = "categorias";
+    public static final String EXAMENES = "examenes";
+
+    private final String arranque = Long.toString(System.currentTimeMillis(),36);
+
+    private final ConcurrentMap<String,Version> versiones = new ConcurrentHashMap<>();
+
+    public void incrementar(String... colecciones){
+        long ahora = segundoSiguiente(System.currentTimeMillis());
+        for(String coleccion : colecciones){
+            // Last-Modified viaja en segundos: cada versión nueva debe caer en un segundo posterior a la anterior
+            versiones.compute(coleccion,(clave,actual) -> actual == null
+                    ? new Version(1,ahora)
+                    : new Version(actual.numero + 1,Math.max(ahora,actual.modificado + 1000)));
+        }
+    }
+
+    public String etag(String coleccion, Object... partes){
+        StringBuilder etag = new StringBuilder("\"").append(coleccion).append('-').append(arranque).append('-').append(version(coleccion).numero);
+        for(Object parte : partes){
+            etag.append('-').append(parte);
+        }
+        return etag.append('"').toString();
+    }
+
+    public long ultimaModificacion(String coleccion){
+        return version(coleccion).modificado;
+    }
+
+    private Version version(String coleccion){
+        return versiones.computeIfAbsent(coleccion,clave -> new Version(0,segundoSiguiente(System.currentTimeMillis())));
+    }
+
+    private static long segundoSiguiente(long milisegundos){
+        return (milisegundos + 999) / 1000 * 1000;
+    }
+
+    private static final class Version {
+
+        private final long numero;
+        private final long modificado;
+
+        private Version(long numero, long modificado) {
+            this.numero = numero;
+            this.modificado = modificado;
+        }
+    }
+}
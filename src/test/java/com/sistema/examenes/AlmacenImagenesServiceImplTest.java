@@ -0,0 +1,67 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.servicios.impl.AlmacenImagenesServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlmacenImagenesServiceImplTest {
+
+    // Cabecera mínima de un archivo PNG
+    static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    @TempDir
+    Path directorio;
+
+    private AlmacenImagenesServiceImpl almacenImagenesService;
+
+    // Método que se ejecuta antes de cada prueba para crear el almacén en un directorio temporal
+    @BeforeEach
+    void setUp() {
+        almacenImagenesService = new AlmacenImagenesServiceImpl(directorio.toString(), 1024);
+    }
+
+    // Prueba que la imagen se guarda con el nombre de su SHA-256 en un directorio particionado
+    @Test
+    void guardarImagen() throws Exception {
+        String nombre = almacenImagenesService.guardarImagen(new ByteArrayInputStream(PNG));
+
+        assertTrue(nombre.matches("[0-9a-f]{64}\\.png")); // Verifica el nombre por contenido
+        Path ubicacion = almacenImagenesService.ubicarImagen(nombre);
+        assertEquals(directorio.resolve(nombre.substring(0, 2)).resolve(nombre.substring(2, 4)).resolve(nombre), ubicacion); // Verifica la partición
+        assertArrayEquals(PNG, Files.readAllBytes(ubicacion)); // Verifica el contenido guardado
+    }
+
+    // Prueba que dos subidas del mismo contenido comparten un único archivo
+    @Test
+    void guardarImagenDuplicada() throws Exception {
+        String primera = almacenImagenesService.guardarImagen(new ByteArrayInputStream(PNG));
+        String segunda = almacenImagenesService.guardarImagen(new ByteArrayInputStream(PNG));
+
+        assertEquals(primera, segunda); // Verifica que se reutiliza el nombre
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            assertEquals(1, archivos.filter(Files::isRegularFile).count()); // Verifica que hay un solo archivo y no quedan temporales
+        }
+    }
+
+    // Prueba que se rechazan archivos que no son imágenes o superan el tamaño máximo
+    @Test
+    void guardarImagenInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> almacenImagenesService.guardarImagen(new ByteArrayInputStream("texto".getBytes()))); // Verifica el formato
+        assertThrows(IllegalArgumentException.class, () -> almacenImagenesService.guardarImagen(new ByteArrayInputStream(new byte[2048]))); // Verifica el tamaño
+    }
+
+    // Prueba que no se resuelven nombres fuera del almacén
+    @Test
+    void ubicarImagenConNombreInvalido() {
+        assertNull(almacenImagenesService.ubicarImagen("../application.properties")); // Verifica que se rechaza el recorrido de directorios
+        assertNull(almacenImagenesService.ubicarImagen(Stream.generate(() -> "a").limit(64).reduce("", String::concat) + ".png")); // Verifica una imagen inexistente
+    }
+}
@@ -0,0 +1,169 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.configuraciones.RevocacionTokens;
+import com.sistema.examenes.controladores.AuthenticationController;
+import com.sistema.examenes.modelo.Rol;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioDetalles;
+import com.sistema.examenes.modelo.UsuarioRol;
+import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthenticationControllerTest {
+
+    private static final String SECRETO = "secreto-de-tokens-de-acceso-solo-para-pruebas";
+
+    // Mock para la verificación de contraseñas, que el refresco no debe usar
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    // Emisor y registro de revocaciones reales
+    @Spy
+    private JwtUtils jwtUtils = new JwtUtils(SECRETO, 100, 15, 10080);
+
+    @Spy
+    private RevocacionTokens revocacionTokens = new RevocacionTokens(10080);
+
+    @InjectMocks
+    private AuthenticationController authenticationController;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+
+    private UsuarioDetalles usuario;
+
+    // Método que se ejecuta antes de cada prueba para crear el controlador y un usuario con el rol NORMAL
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(authenticationController).build();
+
+        Usuario entidad = new Usuario();
+        entidad.setId(5L);
+        entidad.setUsername("testuser");
+        entidad.setPassword("$2a$10$hashDeLaContrasenaDePrueba");
+        Rol rol = new Rol();
+        rol.setRolNombre("NORMAL");
+        UsuarioRol usuarioRol = new UsuarioRol();
+        usuarioRol.setUsuario(entidad);
+        usuarioRol.setRol(rol);
+        entidad.getUsuarioRoles().add(usuarioRol);
+        usuario = UsuarioDetalles.de(entidad);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(usuario);
+    }
+
+    // Prueba que el refresco entrega un token de acceso nuevo y rota el token de refresco sin verificar la contraseña
+    @Test
+    void refrescarToken() throws Exception {
+        String refreshToken = jwtUtils.generarTokenDeRefresco(usuario);
+
+        JsonNode respuesta = objectMapper.readTree(refrescar(refreshToken).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        Claims acceso = jwtUtils.validarToken(respuesta.get("token").asText());
+        assertEquals(JwtUtils.TIPO_ACCESO, acceso.get(JwtUtils.CLAIM_TIPO)); // Verifica que se emitió un token de acceso
+        assertNotEquals(refreshToken, respuesta.get("refreshToken").asText()); // Verifica que el token de refresco rotó
+        verify(authenticationManager, never()).authenticate(any()); // Verifica que no se verificó la contraseña
+    }
+
+    // Prueba que reusar un token de refresco ya rotado lo rechaza y revoca todos los tokens del usuario
+    @Test
+    void reusarTokenDeRefresco() throws Exception {
+        String refreshToken = jwtUtils.generarTokenDeRefresco(usuario);
+        refrescar(refreshToken).andExpect(status().isOk());
+
+        refrescar(refreshToken).andExpect(status().isUnauthorized());
+
+        verify(revocacionTokens, times(1)).revocar(5L); // Verifica que se revocaron los tokens del usuario
+    }
+
+    // Prueba que el token de refresco de un usuario eliminado no sirve para otro registrado con el mismo nombre
+    @Test
+    void refrescarConUsuarioRegistradoDeNuevo() throws Exception {
+        String refreshToken = jwtUtils.generarTokenDeRefresco(usuario);
+        Usuario nuevo = new Usuario();
+        nuevo.setId(6L);
+        nuevo.setUsername("testuser");
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(UsuarioDetalles.de(nuevo));
+
+        refrescar(refreshToken).andExpect(status().isUnauthorized()); // Verifica que el id del token no coincide con el usuario actual
+    }
+
+    // Prueba que un token de acceso no sirve para refrescar
+    @Test
+    void refrescarConTokenDeAcceso() throws Exception {
+        refrescar(jwtUtils.generateToken(usuario)).andExpect(status().isUnauthorized());
+    }
+
+    // Prueba que cerrar la sesión revoca el token de refresco y el token de acceso
+    @Test
+    void revocarToken() throws Exception {
+        String token = jwtUtils.generateToken(usuario);
+        String refreshToken = jwtUtils.generarTokenDeRefresco(usuario);
+
+        mockMvc.perform(post("/revoke-token").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isNoContent());
+
+        Claims acceso = jwtUtils.validarToken(token);
+        assertTrue(revocacionTokens.tokenRevocado(acceso.getId(), acceso.getExpiration())); // Verifica que el token de acceso quedó revocado
+        refrescar(refreshToken).andExpect(status().isUnauthorized()); // Verifica que el token de refresco ya no sirve
+    }
+
+    // Prueba que reintentar el refresco después de cerrar la sesión se rechaza sin revocar los demás tokens del usuario
+    @Test
+    void refrescarDespuesDeCerrarSesion() throws Exception {
+        String refreshToken = jwtUtils.generarTokenDeRefresco(usuario);
+        mockMvc.perform(post("/revoke-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isNoContent());
+
+        refrescar(refreshToken).andExpect(status().isUnauthorized()); // Verifica que el token cerrado ya no sirve
+
+        verify(revocacionTokens, never()).revocar(anyLong()); // Verifica que no se trató como robo del token
+    }
+
+    // Prueba que el usuario actual se entrega sin el hash de su contraseña
+    @Test
+    void obtenerUsuarioActualSinContrasena() throws Exception {
+        mockMvc.perform(get("/actual-usuario").principal(() -> "testuser"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("testuser")) // Verifica que se entregó el usuario
+                .andExpect(jsonPath("$.password").doesNotExist()); // Verifica que no se expone la contraseña
+    }
+
+    private ResultActions refrescar(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/refresh-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.impl.CacheInstantaneasPreguntas;
+import com.sistema.examenes.servicios.impl.InstantaneaPreguntas;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureJson
+@Import(CacheInstantaneasPreguntas.class)
+class CacheInstantaneasPreguntasTest {
+
+    @Autowired
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Examen examen;
+
+    // Estadísticas de Hibernate para contar consultas y entidades cargadas
+    private Statistics estadisticas;
+
+    // Método que se ejecuta antes de cada prueba para persistir una categoría con un examen de 50 preguntas
+    @BeforeEach
+    void setUp() {
+        Categoria categoria = new Categoria();
+        categoria.setTitulo("Historia");
+        categoria.setDescripcion("Preguntas de historia universal y regional");
+        entityManager.persist(categoria);
+
+        examen = new Examen();
+        examen.setTitulo("Examen de Historia");
+        examen.setDescripcion("Examen parcial del primer trimestre");
+        examen.setNumeroDePreguntas(20);
+        examen.setCategoria(categoria);
+        entityManager.persist(examen);
+
+        for (int i = 0; i < 50; i++) {
+            Pregunta pregunta = new Pregunta();
+            pregunta.setContenido("¿En qué año ocurrió el acontecimiento " + i + "?");
+            pregunta.setOpcion1("1810");
+            pregunta.setOpcion2("1816");
+            pregunta.setOpcion3("1853");
+            pregunta.setOpcion4("1880");
+            pregunta.setRespuesta("1810");
+            pregunta.setExamen(examen);
+            entityManager.persist(pregunta);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    // Prueba que la proyección de estudiante no carga entidades y que la vista completa arrastra examen y categoría
+    @Test
+    void proyeccionSinGrafoDeEntidades() {
+        assertEquals(50, preguntaRepository.findPreguntasParaEstudiante(examen.getExamenId()).size());
+        assertEquals(1, estadisticas.getPrepareStatementCount()); // Verifica que se ejecutó una sola consulta
+        assertEquals(0, estadisticas.getEntityLoadCount()); // Verifica que no se cargaron entidades
+
+        estadisticas.clear();
+        entityManager.clear();
+        Set<Pregunta> completas = preguntaRepository.findByExamen(examen);
+        assertEquals(50, completas.size());
+        assertTrue(estadisticas.getEntityLoadCount() > 50); // Verifica que la vista completa carga también examen y categoría
+    }
+
+    // Prueba que la instantánea pesa menos que la vista completa y no expone la respuesta
+    @Test
+    void instantaneaMasLivianaQueLaVistaCompleta() throws Exception {
+        InstantaneaPreguntas instantanea = cacheInstantaneasPreguntas.obtener(examen.getExamenId()).get();
+        assertEquals(3, estadisticas.getPrepareStatementCount()); // Verifica conteo, examen y proyección
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        salida.write('[');
+        for (int i = 0; i < instantanea.getCantidadDePreguntas(); i++) {
+            if (i > 0) {
+                salida.write(',');
+            }
+            instantanea.escribir(i, new int[]{0, 1, 2, 3}, salida);
+        }
+        salida.write(']');
+        byte[] vistaCompleta = objectMapper.writeValueAsBytes(preguntaRepository.findByExamen(examen));
+
+        JsonNode preguntas = objectMapper.readTree(salida.toByteArray());
+        assertEquals(50, preguntas.size()); // Verifica que se entregan todas las preguntas
+        assertFalse(preguntas.get(0).has("respuesta")); // Verifica que no se expone la respuesta
+        assertFalse(preguntas.get(0).has("examen")); // Verifica que no se repite el examen
+        assertTrue(salida.size() * 2 < vistaCompleta.length); // Verifica que el contenido pesa menos de la mitad
+
+        estadisticas.clear();
+        cacheInstantaneasPreguntas.obtener(examen.getExamenId());
+        assertEquals(0, estadisticas.getPrepareStatementCount()); // Verifica que la instantánea se reutiliza sin consultas
+    }
+}
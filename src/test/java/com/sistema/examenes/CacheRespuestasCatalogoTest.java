@@ -0,0 +1,88 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.servicios.impl.CacheRespuestasCatalogo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheRespuestasCatalogoTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CacheRespuestasCatalogo cacheRespuestasCatalogo;
+
+    // Cuenta cuántas veces se genera el contenido de la respuesta
+    private final AtomicInteger generaciones = new AtomicInteger();
+
+    // Método que se ejecuta antes de cada prueba para crear la cache con métricas en memoria
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheRespuestasCatalogo = crear(meterRegistry);
+    }
+
+    static CacheRespuestasCatalogo crear(SimpleMeterRegistry meterRegistry) {
+        CacheRespuestasCatalogo cache = new CacheRespuestasCatalogo(100, 10);
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        cache.iniciar();
+        return cache;
+    }
+
+    // Prueba que la segunda respuesta reutiliza los bytes serializados y se cuentan aciertos y fallos
+    @Test
+    void responderDesdeCache() {
+        ResponseEntity<byte[]> primera = cacheRespuestasCatalogo.responder("\"examenes-1\"", null, this::contenido);
+        ResponseEntity<byte[]> segunda = cacheRespuestasCatalogo.responder("\"examenes-1\"", null, this::contenido);
+
+        assertEquals(1, generaciones.get()); // Verifica que el contenido se serializa una sola vez
+        assertSame(primera.getBody(), segunda.getBody()); // Verifica que se entregan los mismos bytes
+        assertEquals("[\"uno\",\"dos\"]", new String(segunda.getBody())); // Verifica el JSON
+        assertEquals(1.0, meterRegistry.counter("respuestas.cache.aciertos").count()); // Verifica los aciertos
+        assertEquals(1.0, meterRegistry.counter("respuestas.cache.fallos").count()); // Verifica los fallos
+        assertEquals(2.0 * primera.getBody().length, meterRegistry.counter("respuestas.cache.bytes", "codificacion", "identity").count()); // Verifica los bytes entregados
+    }
+
+    // Prueba que se entrega la versión comprimida cuando el cliente acepta gzip
+    @Test
+    void responderComprimido() throws Exception {
+        ResponseEntity<byte[]> respuesta = cacheRespuestasCatalogo.responder("\"examenes-1\"", "br, gzip;q=0.8", this::contenido);
+
+        assertEquals("gzip", respuesta.getHeaders().getFirst("Content-Encoding")); // Verifica la codificación
+        assertEquals("Accept-Encoding", respuesta.getHeaders().getFirst("Vary")); // Verifica la cabecera Vary
+        byte[] json = StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(respuesta.getBody())));
+        assertEquals("[\"uno\",\"dos\"]", new String(json)); // Verifica que el contenido descomprimido es el JSON
+    }
+
+    // Prueba que el ETag de la variante comprimida se distingue del de la variante sin comprimir
+    @Test
+    void etagPorCodificacion() {
+        assertEquals("\"examenes-1\"", cacheRespuestasCatalogo.etag("\"examenes-1\"", null)); // Verifica el ETag sin comprimir
+        assertEquals("\"examenes-1-gzip\"", cacheRespuestasCatalogo.etag("\"examenes-1\"", "gzip, deflate")); // Verifica el sufijo de gzip
+        assertEquals("\"examenes-1\"", cacheRespuestasCatalogo.etag("\"examenes-1\"", "gzip;q=0")); // Verifica que gzip rechazado no cambia el ETag
+    }
+
+    // Prueba que gzip con q=0 se considera no aceptado
+    @Test
+    void responderSinComprimirConCalidadCero() {
+        ResponseEntity<byte[]> respuesta = cacheRespuestasCatalogo.responder("\"examenes-1\"", "gzip;q=0", this::contenido);
+
+        assertNull(respuesta.getHeaders().getFirst("Content-Encoding")); // Verifica que no se comprime
+    }
+
+    private Object contenido() {
+        generaciones.incrementAndGet();
+        return Arrays.asList("uno", "dos");
+    }
+}
@@ -0,0 +1,170 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.MetricasCacheSegundoNivel;
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.repositorios.CategoriaRepository;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.servicios.impl.CacheClavesRespuestas;
+import com.sistema.examenes.servicios.impl.CacheInstantaneasPreguntas;
+import com.sistema.examenes.servicios.impl.EliminacionMasiva;
+import com.sistema.examenes.servicios.impl.ExamenServiceImpl;
+import com.sistema.examenes.servicios.impl.IndiceBusqueda;
+import com.sistema.examenes.servicios.impl.VersionesCatalogo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Las pruebas confirman cada escritura porque la cache de segundo nivel solo se actualiza al terminar la transacción
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ExamenServiceImpl.class, EliminacionMasiva.class, MetricasCacheSegundoNivel.class, CacheSegundoNivelTest.Metricas.class})
+class CacheSegundoNivelTest {
+
+    @TestConfiguration
+    static class Metricas {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private ExamenServiceImpl examenService;
+
+    @Autowired
+    private ExamenRepository examenRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Dependencias de ExamenServiceImpl que no intervienen en la cache de segundo nivel
+    @MockBean
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    @MockBean
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @MockBean
+    private VersionesCatalogo versionesCatalogo;
+
+    @MockBean
+    private IndiceBusqueda indiceBusqueda;
+
+    private Categoria categoria;
+    private Examen examen;
+
+    // Estadísticas de Hibernate para contar consultas y aciertos por región
+    private Statistics estadisticas;
+
+    // Método que se ejecuta antes de cada prueba para guardar una categoría con un examen activo y vaciar la cache
+    @BeforeEach
+    void setUp() {
+        categoria = new Categoria();
+        categoria.setTitulo("Física");
+        categoria = categoriaRepository.save(categoria);
+
+        examen = new Examen();
+        examen.setTitulo("Cinemática");
+        examen.setActivo(true);
+        examen.setCategoria(categoria);
+        examen = examenRepository.save(examen);
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        estadisticas = sessionFactory.getStatistics();
+        estadisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        examenRepository.deleteAll();
+        categoriaRepository.deleteAll();
+    }
+
+    // Prueba que la segunda lectura de un examen se resuelve desde la cache
+    @Test
+    void obtenerExamenDesdeCache() {
+        examenRepository.findById(examen.getExamenId()).get();
+        Examen desdeCache = examenRepository.findById(examen.getExamenId()).get();
+
+        assertEquals(1, estadisticas.getPrepareStatementCount()); // Verifica que solo la primera lectura consultó la base de datos
+        assertEquals("Física", desdeCache.getCategoria().getTitulo()); // Verifica que la categoría también se resolvió
+        assertEquals(0.5, ratioDeAciertos("examenes"), 0.0001); // Verifica un fallo y un acierto en la región de exámenes
+    }
+
+    // Prueba que la consulta de exámenes activos se repite sin ir a la base de datos
+    @Test
+    void consultarExamenesActivosDesdeCache() {
+        examenRepository.findByActivo(true);
+        List<Examen> desdeCache = examenRepository.findByActivo(true);
+        List<Examen> deLaCategoria = examenRepository.findByCategoriaAndActivo(categoria, true);
+        examenRepository.findByCategoriaAndActivo(categoria, true);
+
+        assertEquals(2, estadisticas.getPrepareStatementCount()); // Verifica una consulta por cada filtro distinto
+        assertEquals(1, desdeCache.size()); // Verifica el examen activo
+        assertEquals(1, deLaCategoria.size()); // Verifica el examen activo de la categoría
+        assertEquals(0.5, ratioDeAciertos(ExamenRepository.CONSULTAS_EXAMENES), 0.0001); // Verifica los aciertos de la región de consultas
+    }
+
+    // Prueba que guardar un examen desde el servicio invalida la entidad y las consultas en cache
+    @Test
+    void actualizarExamenInvalidaLaCache() {
+        examenRepository.findById(examen.getExamenId());
+        examenRepository.findByActivo(true);
+
+        examen.setTitulo("Dinámica");
+        examenService.actualizarExamen(examen);
+        Examen actualizado = examenRepository.findById(examen.getExamenId()).get();
+        examen.setActivo(false);
+        examenService.actualizarExamen(examen);
+
+        assertEquals("Dinámica", actualizado.getTitulo()); // Verifica que no se leyó el título anterior
+        assertTrue(examenRepository.findByActivo(true).isEmpty()); // Verifica que la consulta en cache se descartó
+    }
+
+    // Prueba que el borrado masivo de un examen también lo descarta de la cache
+    @Test
+    void eliminarExamenInvalidaLaCache() {
+        examenRepository.findById(examen.getExamenId());
+        examenRepository.findByActivo(true);
+
+        examenService.eliminarExamen(examen.getExamenId());
+
+        assertFalse(examenRepository.findById(examen.getExamenId()).isPresent()); // Verifica que no se leyó la entidad eliminada
+        assertTrue(examenRepository.findByActivo(true).isEmpty()); // Verifica que la consulta en cache se descartó
+    }
+
+    private double ratioDeAciertos(String region) {
+        return meterRegistry.get("hibernate.cache.region.ratio-aciertos").tag("region", region).gauge().value();
+    }
+}
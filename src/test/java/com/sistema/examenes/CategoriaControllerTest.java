@@ -0,0 +1,83 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.controladores.CategoriaController;
+import com.sistema.examenes.servicios.CategoriaService;
+import com.sistema.examenes.servicios.impl.CacheRespuestasCatalogo;
+import com.sistema.examenes.servicios.impl.VersionesCatalogo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.LinkedHashSet;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CategoriaControllerTest {
+
+    // Mock para el servicio de categorías, que es el único que consulta la base de datos
+    @Mock
+    private CategoriaService categoriaService;
+
+    // Versiones reales del catálogo
+    @Spy
+    private VersionesCatalogo versionesCatalogo = new VersionesCatalogo();
+
+    // Cache real de respuestas serializadas
+    @Spy
+    private CacheRespuestasCatalogo cacheRespuestasCatalogo = CacheRespuestasCatalogoTest.crear(new SimpleMeterRegistry());
+
+    // Inyección de las dependencias en el controlador
+    @InjectMocks
+    private CategoriaController categoriaController;
+
+    private MockMvc mockMvc;
+
+    // Método que se ejecuta antes de cada prueba para crear el controlador
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(categoriaController).build();
+        when(categoriaService.obtenerCategorias()).thenReturn(new LinkedHashSet<>());
+    }
+
+    // Prueba que el listado de categorías responde 304 hasta que cambia una categoría
+    @Test
+    void listarCategoriasNoModificadas() throws Exception {
+        String etag = mockMvc.perform(get("/categoria/"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/categoria/").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(categoriaService, times(1)).obtenerCategorias(); // Verifica que el 304 no toca la base de datos
+
+        versionesCatalogo.incrementar(VersionesCatalogo.CATEGORIAS);
+        mockMvc.perform(get("/categoria/").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        verify(categoriaService, times(2)).obtenerCategorias(); // Verifica que un cambio invalida el ETag
+    }
+
+    // Prueba que Last-Modified, redondeado a segundos, permite responder 304 y avanza con cada cambio
+    @Test
+    void listarCategoriasNoModificadasDesde() throws Exception {
+        String modificado = mockMvc.perform(get("/categoria/"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Last-Modified");
+
+        mockMvc.perform(get("/categoria/").header("If-Modified-Since", modificado))
+                .andExpect(status().isNotModified());
+
+        versionesCatalogo.incrementar(VersionesCatalogo.CATEGORIAS);
+        mockMvc.perform(get("/categoria/").header("If-Modified-Since", modificado))
+                .andExpect(status().isOk());
+        verify(categoriaService, times(2)).obtenerCategorias(); // Verifica que solo el cambio vuelve a consultar
+    }
+}
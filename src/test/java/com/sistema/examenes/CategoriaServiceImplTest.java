@@ -1,21 +1,36 @@
 package com.sistema.examenes;
 
 import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.ConteoExamenes;
+import com.sistema.examenes.modelo.Pagina;
 import com.sistema.examenes.repositorios.CategoriaRepository;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.servicios.ExamenesModificadosEvent;
+import com.sistema.examenes.servicios.impl.CacheClavesRespuestas;
+import com.sistema.examenes.servicios.impl.CacheInstantaneasPreguntas;
 import com.sistema.examenes.servicios.impl.CategoriaServiceImpl;
+import com.sistema.examenes.servicios.impl.EliminacionMasiva;
+import com.sistema.examenes.servicios.impl.IndiceBusqueda;
+import com.sistema.examenes.servicios.impl.VersionesCatalogo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class CategoriaServiceImplTest {
@@ -24,6 +39,27 @@ class CategoriaServiceImplTest {
     @Mock
     private CategoriaRepository categoriaRepository;
 
+    // Mock para la dependencia de ExamenRepository, usada para contar exámenes activos
+    @Mock
+    private ExamenRepository examenRepository;
+
+    // Mock para las versiones del catálogo
+    @Mock
+    private VersionesCatalogo versionesCatalogo;
+
+    // Mocks para el borrado masivo y las caches de los exámenes eliminados
+    @Mock
+    private EliminacionMasiva eliminacionMasiva;
+
+    @Mock
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    @Mock
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @Mock
+    private IndiceBusqueda indiceBusqueda;
+
     // Inyección del mock en la instancia de CategoriaServiceImpl
     @InjectMocks
     private CategoriaServiceImpl categoriaService;
@@ -35,6 +71,7 @@ class CategoriaServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(categoriaService, "limiteMaximo", 10);
         categoria = new Categoria();
         categoria.setCategoriaId(1L);
         categoria.setTitulo("Matemáticas");
@@ -69,6 +106,22 @@ class CategoriaServiceImplTest {
         assertEquals(categoria.getTitulo(), categoriaActualizada.getTitulo()); // Verifica que el título de la categoría es correcto
     }
 
+    // Prueba que la versión enviada por el cliente se reemplaza por la guardada antes de actualizar
+    @Test
+    void actualizarCategoriaIgnoraLaVersionRecibida() {
+        Categoria guardada = new Categoria();
+        guardada.setCategoriaId(1L);
+        guardada.setVersion(4L);
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(guardada));
+        when(categoriaRepository.save(any(Categoria.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        categoria.setVersion(null);
+        assertEquals(4L, categoriaService.actualizarCategoria(categoria).getVersion()); // Verifica que una petición sin versión conserva la guardada
+
+        categoria.setVersion(0L);
+        assertEquals(4L, categoriaService.actualizarCategoria(categoria).getVersion()); // Verifica que no se acepta una versión arbitraria
+    }
+
     // Prueba para el método obtenerCategorias
     @Test
     void obtenerCategorias() {
@@ -104,13 +157,120 @@ class CategoriaServiceImplTest {
     // Prueba para el método eliminarCategoria
     @Test
     void eliminarCategoria() {
-        // Simulación del comportamiento del repositorio al eliminar una categoría
-        doNothing().when(categoriaRepository).delete(any(Categoria.class));
+        // Simulación del borrado masivo de una categoría con dos exámenes
+        when(eliminacionMasiva.eliminarCategoria(1L)).thenReturn(Arrays.asList(10L, 11L));
 
         // Llamada al método eliminarCategoria del servicio
         categoriaService.eliminarCategoria(1L);
 
         // Verificación de la prueba
-        verify(categoriaRepository, times(1)).delete(any(Categoria.class)); // Verifica que el método delete se llamó una vez
+        verify(categoriaRepository, never()).delete(any(Categoria.class)); // Verifica que no se cargó la categoría para borrarla en cascada
+        verify(indiceBusqueda, times(1)).eliminarExamen(10L); // Verifica que los exámenes salieron del índice de búsqueda
+        verify(indiceBusqueda, times(1)).eliminarExamen(11L);
+        verify(cacheClavesRespuestas, times(1)).invalidar(11L); // Verifica que se invalidaron sus claves de respuestas
+    }
+
+    // Prueba que la paginación por cursor devuelve el siguiente cursor
+    @Test
+    void obtenerCategoriasPaginadas() {
+        Categoria siguiente = new Categoria();
+        siguiente.setCategoriaId(2L);
+        when(categoriaRepository.findByCategoriaIdGreaterThanOrderByCategoriaIdAsc(0L, PageRequest.of(0, 2)))
+                .thenReturn(new ArrayList<>(Arrays.asList(categoria, siguiente)));
+
+        Pagina<Categoria> pagina = categoriaService.obtenerCategorias(null, 1);
+
+        assertEquals(1, pagina.getElementos().size()); // Verifica el tamaño de la página
+        assertEquals(1L, pagina.getSiguienteCursor()); // Verifica el cursor de la siguiente página
+    }
+
+    // Prueba que el catálogo se carga una sola vez y las lecturas no vuelven a consultar la base de datos
+    @Test
+    void obtenerCategoriasDesdeCatalogo() {
+        when(categoriaRepository.findAll()).thenReturn(new ArrayList<>(Arrays.asList(categoria)));
+
+        categoriaService.obtenerCategorias();
+        Categoria categoriaObtenida = categoriaService.obtenerCategoria(1L);
+
+        assertEquals("Matemáticas", categoriaObtenida.getTitulo()); // Verifica la categoría del catálogo
+        assertEquals(0L, categoriaObtenida.getExamenesActivos()); // Verifica el conteo de exámenes activos
+        verify(categoriaRepository, times(1)).findAll(); // Verifica que el catálogo se cargó una vez
+        verify(categoriaRepository, never()).findById(anyLong()); // Verifica que no se consultó por ID
+    }
+
+    // Prueba que las escrituras actualizan el catálogo en memoria
+    @Test
+    void actualizarCatalogo() {
+        when(categoriaRepository.findAll()).thenReturn(new ArrayList<>(Arrays.asList(categoria)));
+        categoriaService.obtenerCategorias();
+
+        Categoria nueva = new Categoria();
+        nueva.setCategoriaId(2L);
+        nueva.setTitulo("Física");
+        when(categoriaRepository.save(any(Categoria.class))).thenReturn(nueva);
+        categoriaService.agregarCategoria(nueva);
+        categoriaService.eliminarCategoria(1L);
+
+        Set<Categoria> categorias = categoriaService.obtenerCategorias();
+        assertEquals(1, categorias.size()); // Verifica que se agregó una y se eliminó otra
+        assertEquals("Física", categorias.iterator().next().getTitulo()); // Verifica la categoría restante
+        verify(categoriaRepository, times(1)).findAll(); // Verifica que no se recargó el catálogo
+    }
+
+    // Prueba que los cambios en los exámenes actualizan los conteos de exámenes activos
+    @Test
+    void actualizarExamenesActivos() {
+        when(categoriaRepository.findAll()).thenReturn(new ArrayList<>(Arrays.asList(categoria)));
+        categoriaService.obtenerCategorias();
+
+        ConteoExamenes conteo = mock(ConteoExamenes.class);
+        when(conteo.getCategoriaId()).thenReturn(1L);
+        when(conteo.getCantidad()).thenReturn(3L);
+        when(examenRepository.contarExamenesActivosPorCategoria()).thenReturn(Arrays.asList(conteo));
+        categoriaService.alModificarExamenes(new ExamenesModificadosEvent(5L));
+
+        assertEquals(3L, categoriaService.obtenerCategoria(1L).getExamenesActivos()); // Verifica el nuevo conteo
+        verify(versionesCatalogo).incrementar(VersionesCatalogo.CATEGORIAS); // Verifica que se invalida el listado de categorías
+    }
+
+    // Prueba que una escritura durante la carga del catálogo no se pierde
+    @Test
+    void agregarCategoriaDuranteLaCarga() throws Exception {
+        CountDownLatch cargando = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        when(categoriaRepository.findAll()).thenAnswer(invocation -> {
+            cargando.countDown();
+            continuar.await(5, TimeUnit.SECONDS);
+            return new ArrayList<>(Arrays.asList(categoria));
+        });
+        Categoria nueva = new Categoria();
+        nueva.setCategoriaId(2L);
+        nueva.setTitulo("Física");
+        when(categoriaRepository.save(any(Categoria.class))).thenReturn(nueva);
+
+        Thread carga = new Thread(() -> categoriaService.obtenerCategorias());
+        carga.start();
+        assertTrue(cargando.await(5, TimeUnit.SECONDS));
+        Thread escritura = new Thread(() -> categoriaService.agregarCategoria(nueva));
+        escritura.start();
+        escritura.join(200);
+        continuar.countDown();
+        carga.join();
+        escritura.join();
+
+        assertEquals(2, categoriaService.obtenerCategorias().size()); // Verifica que la categoría agregada quedó en el catálogo
+        verify(categoriaRepository, times(1)).findAll(); // Verifica que no se recargó el catálogo
+    }
+
+    // Prueba que el catálogo entrega copias que no se pueden alterar desde fuera
+    @Test
+    void obtenerCategoriaEntregaCopias() {
+        when(categoriaRepository.findAll()).thenReturn(new ArrayList<>(Arrays.asList(categoria)));
+
+        categoriaService.obtenerCategoria(1L).setTitulo("Alterada");
+        categoriaService.obtenerCategorias().iterator().next().setTitulo("Alterada");
+
+        assertEquals("Matemáticas", categoriaService.obtenerCategoria(1L).getTitulo()); // Verifica que el catálogo no cambió
+        assertEquals("Matemáticas", categoriaService.obtenerCategorias().iterator().next().getTitulo());
     }
 }
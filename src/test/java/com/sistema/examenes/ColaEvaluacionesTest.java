@@ -0,0 +1,135 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.ResultadoEvaluacion;
+import com.sistema.examenes.modelo.TicketEvaluacion;
+import com.sistema.examenes.servicios.EvaluacionService;
+import com.sistema.examenes.servicios.IntentoService;
+import com.sistema.examenes.servicios.impl.ColaEvaluaciones;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ColaEvaluacionesTest {
+
+    // Mock para el servicio que califica los envíos
+    private EvaluacionService evaluacionService;
+
+    // Mock para el servicio que registra los intentos
+    private IntentoService intentoService;
+
+    // Cola con capacidad para un solo envío
+    private ColaEvaluaciones colaEvaluaciones;
+
+    // Método que se ejecuta antes de cada prueba para crear la cola sin iniciar sus trabajadores
+    @BeforeEach
+    void setUp() {
+        evaluacionService = mock(EvaluacionService.class);
+        colaEvaluaciones = new ColaEvaluaciones(1, 1, 8, 5, 3, 100);
+        intentoService = mock(IntentoService.class);
+        ReflectionTestUtils.setField(colaEvaluaciones, "evaluacionService", evaluacionService);
+        ReflectionTestUtils.setField(colaEvaluaciones, "intentoService", intentoService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        colaEvaluaciones.detener();
+    }
+
+    // Prueba que la cola rechaza envíos cuando está llena
+    @Test
+    void encolarConColaLlena() {
+        TicketEvaluacion primero = colaEvaluaciones.encolar("testuser", new ArrayList<>());
+        TicketEvaluacion segundo = colaEvaluaciones.encolar("testuser", new ArrayList<>());
+
+        assertNotNull(primero); // Verifica que el primer envío se aceptó
+        assertEquals(TicketEvaluacion.PENDIENTE, primero.getEstado()); // Verifica que queda pendiente
+        assertNull(segundo); // Verifica que el segundo envío se rechazó
+        assertEquals(3, colaEvaluaciones.getReintentarEnSegundos()); // Verifica el tiempo sugerido de reintento
+    }
+
+    // Prueba que los trabajadores califican el envío y publican el resultado en el ticket
+    @Test
+    void encolarYConsultarResultado() throws InterruptedException {
+        ResultadoEvaluacion resultado = new ResultadoEvaluacion(1L, 10, 1, 1);
+        when(evaluacionService.evaluarExamen(anyList())).thenReturn(resultado);
+        colaEvaluaciones.iniciar();
+
+        List<Pregunta> preguntas = new ArrayList<>();
+        preguntas.add(new Pregunta());
+        TicketEvaluacion ticket = colaEvaluaciones.encolar("testuser", preguntas);
+
+        TicketEvaluacion consultado = colaEvaluaciones.consultar(ticket.getTicket(), "testuser");
+        for (int i = 0; i < 100 && TicketEvaluacion.PENDIENTE.equals(consultado.getEstado()); i++) {
+            Thread.sleep(20);
+            consultado = colaEvaluaciones.consultar(ticket.getTicket(), "testuser");
+        }
+
+        assertEquals(TicketEvaluacion.COMPLETADO, consultado.getEstado()); // Verifica que el envío fue calificado
+        assertSame(resultado, consultado.getResultado()); // Verifica que el resultado es el del servicio
+        verify(evaluacionService, times(1)).evaluarExamen(preguntas); // Verifica que se calificó una sola vez
+        verify(intentoService, times(1)).registrarIntento("testuser", resultado); // Verifica que se registró el intento
+    }
+
+    // Prueba que un ticket desconocido no tiene resultado
+    @Test
+    void consultarTicketInexistente() {
+        assertNull(colaEvaluaciones.consultar("desconocido", "testuser")); // Verifica que no hay ticket
+    }
+
+    // Prueba que otro usuario no puede consultar el ticket de un envío ajeno
+    @Test
+    void consultarTicketDeOtroUsuario() {
+        TicketEvaluacion ticket = colaEvaluaciones.encolar("testuser", new ArrayList<>());
+
+        assertNull(colaEvaluaciones.consultar(ticket.getTicket(), "otro")); // Verifica que el ticket no se expone a otro usuario
+        assertNotNull(colaEvaluaciones.consultar(ticket.getTicket(), "testuser")); // Verifica que el dueño sí lo ve
+    }
+
+    // Prueba que al detener la cola se califican los envíos aceptados que seguían esperando
+    @Test
+    void detenerCalificaLosEnviosPendientes() throws InterruptedException {
+        colaEvaluaciones = new ColaEvaluaciones(10, 1, 1, 5, 3, 100);
+        ReflectionTestUtils.setField(colaEvaluaciones, "evaluacionService", evaluacionService);
+        ReflectionTestUtils.setField(colaEvaluaciones, "intentoService", intentoService);
+        ResultadoEvaluacion resultado = new ResultadoEvaluacion(1L, 10, 1, 1);
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(evaluacionService.evaluarExamen(anyList())).thenAnswer(invocacion -> {
+            enCurso.countDown();
+            liberar.await();
+            return resultado;
+        });
+        colaEvaluaciones.iniciar();
+
+        List<TicketEvaluacion> aceptados = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            aceptados.add(colaEvaluaciones.encolar("testuser", new ArrayList<>()));
+        }
+        enCurso.await();
+        Thread deteniendo = new Thread(colaEvaluaciones::detener);
+        deteniendo.start();
+        TicketEvaluacion adicional;
+        while ((adicional = colaEvaluaciones.encolar("testuser", new ArrayList<>())) != null) {
+            aceptados.add(adicional);
+            Thread.sleep(5);
+        }
+        liberar.countDown();
+        deteniendo.join(10000);
+
+        assertFalse(deteniendo.isAlive()); // Verifica que la cola terminó de detenerse
+        for (TicketEvaluacion ticket : aceptados) {
+            assertEquals(TicketEvaluacion.COMPLETADO, colaEvaluaciones.consultar(ticket.getTicket(), "testuser").getEstado()); // Verifica que ningún envío quedó pendiente
+        }
+        verify(intentoService, times(aceptados.size())).registrarIntento("testuser", resultado); // Verifica que se registró un intento por envío aceptado
+    }
+}
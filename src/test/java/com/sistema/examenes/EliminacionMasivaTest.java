@@ -0,0 +1,122 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.servicios.impl.EliminacionMasiva;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "examenes.eliminacion.lote=10")
+@Import(EliminacionMasiva.class)
+class EliminacionMasivaTest {
+
+    @Autowired
+    private EliminacionMasiva eliminacionMasiva;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Categoria categoria;
+    private Examen primerExamen;
+    private Examen segundoExamen;
+    private Examen otroExamen;
+
+    // Estadísticas de Hibernate para contar las sentencias ejecutadas
+    private Statistics estadisticas;
+
+    // Método que se ejecuta antes de cada prueba para persistir una categoría con 2 exámenes de 15 y 10 preguntas y un examen ajeno
+    @BeforeEach
+    void setUp() {
+        categoria = new Categoria();
+        categoria.setTitulo("Química");
+        entityManager.persist(categoria);
+        primerExamen = examen(categoria, 15);
+        segundoExamen = examen(categoria, 10);
+
+        Categoria otraCategoria = new Categoria();
+        otraCategoria.setTitulo("Biología");
+        entityManager.persist(otraCategoria);
+        otroExamen = examen(otraCategoria, 5);
+
+        entityManager.flush();
+        entityManager.clear();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    // Prueba que eliminar un examen borra sus preguntas por lotes sin tocar los demás exámenes
+    @Test
+    void eliminarExamen() {
+        eliminacionMasiva.eliminarExamen(primerExamen.getExamenId());
+
+        assertEquals(5, estadisticas.getPrepareStatementCount()); // Verifica dos lotes de preguntas y el borrado del examen, sin cargar entidades
+        assertEquals(0, estadisticas.getEntityLoadCount()); // Verifica que no se cargó el grafo de objetos
+        assertNull(entityManager.find(Examen.class, primerExamen.getExamenId())); // Verifica que el examen se eliminó
+        assertEquals(0, contarPreguntas(primerExamen)); // Verifica que sus preguntas se eliminaron
+        assertEquals(10, contarPreguntas(segundoExamen)); // Verifica que no se tocaron las preguntas de otro examen
+    }
+
+    // Prueba que eliminar una categoría borra sus exámenes y preguntas con unas pocas sentencias
+    @Test
+    void eliminarCategoria() {
+        List<Long> examenIds = eliminacionMasiva.eliminarCategoria(categoria.getCategoriaId());
+
+        assertEquals(2, examenIds.size()); // Verifica que se informan los exámenes eliminados
+        assertTrue(examenIds.contains(segundoExamen.getExamenId()));
+        assertEquals(9, estadisticas.getPrepareStatementCount()); // Verifica los exámenes, 3 lotes de preguntas y el borrado de exámenes y categoría
+        assertNull(entityManager.find(Categoria.class, categoria.getCategoriaId())); // Verifica que la categoría se eliminó
+        assertNull(entityManager.find(Examen.class, segundoExamen.getExamenId())); // Verifica que sus exámenes se eliminaron
+        assertEquals(0, contarPreguntas(primerExamen) + contarPreguntas(segundoExamen)); // Verifica que sus preguntas se eliminaron
+        assertEquals(5, contarPreguntas(otroExamen)); // Verifica que no se tocó otra categoría
+    }
+
+    // Prueba que un examen sin preguntas se elimina en una sola transacción
+    @Test
+    void eliminarExamenSinPreguntas() {
+        Examen vacio = examen(categoria, 0);
+        entityManager.flush();
+        entityManager.clear();
+        estadisticas.clear();
+
+        eliminacionMasiva.eliminarExamen(vacio.getExamenId());
+
+        assertEquals(2, estadisticas.getPrepareStatementCount()); // Verifica la búsqueda de preguntas y el borrado del examen
+        assertNull(entityManager.find(Examen.class, vacio.getExamenId())); // Verifica que el examen se eliminó
+    }
+
+    private Examen examen(Categoria categoria, int preguntas) {
+        Examen examen = new Examen();
+        examen.setTitulo("Examen de " + categoria.getTitulo());
+        examen.setCategoria(categoria);
+        entityManager.persist(examen);
+        for (int i = 0; i < preguntas; i++) {
+            Pregunta pregunta = new Pregunta();
+            pregunta.setContenido("Pregunta " + i);
+            pregunta.setExamen(examen);
+            entityManager.persist(pregunta);
+        }
+        return examen;
+    }
+
+    private long contarPreguntas(Examen examen) {
+        return entityManager.getEntityManager()
+                .createQuery("select count(p) from Pregunta p where p.examen.examenId = :examenId", Long.class)
+                .setParameter("examenId", examen.getExamenId())
+                .getSingleResult();
+    }
+}
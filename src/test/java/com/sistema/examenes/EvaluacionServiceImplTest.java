@@ -0,0 +1,310 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.ResultadoEvaluacion;
+import com.sistema.examenes.modelo.SesionExamen;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.servicios.IntentoService;
+import com.sistema.examenes.servicios.impl.CacheClavesRespuestas;
+import com.sistema.examenes.servicios.impl.EvaluacionServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureJson
+@Import({EvaluacionServiceImpl.class, CacheClavesRespuestas.class})
+class EvaluacionServiceImplTest {
+
+    @Autowired
+    private EvaluacionServiceImpl evaluacionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Mock para el registro de intentos, que se prueba por separado
+    @MockBean
+    private IntentoService intentoService;
+
+    @Autowired
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    // Examen y preguntas persistidas para las pruebas
+    private Examen examen;
+    private List<Pregunta> preguntasGuardadas;
+
+    // Estadísticas de Hibernate para contar las consultas ejecutadas
+    private Statistics estadisticas;
+
+    // Método que se ejecuta antes de cada prueba para persistir un examen con 50 preguntas
+    @BeforeEach
+    void setUp() {
+        examen = new Examen();
+        examen.setTitulo("Examen de Historia");
+        examen.setPuntosMaximos(100.0);
+        examen.setNumeroDePreguntas(50);
+        examen.setPuntosPorPregunta(2.0);
+        entityManager.persist(examen);
+
+        preguntasGuardadas = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Pregunta pregunta = new Pregunta();
+            pregunta.setContenido("Pregunta " + i);
+            pregunta.setOpcion1("A");
+            pregunta.setOpcion2("B");
+            pregunta.setRespuesta("A");
+            pregunta.setExamen(examen);
+            preguntasGuardadas.add(entityManager.persist(pregunta));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    // Prueba que la evaluación de 50 preguntas ejecuta una sola consulta
+    @Test
+    void evaluarExamenConCincuentaPreguntas() {
+        ResultadoEvaluacion resultado = evaluacionService.evaluarExamen(respuestasDadas(50));
+
+        assertEquals(1, estadisticas.getPrepareStatementCount()); // Verifica que se cargó la clave completa en una consulta
+        assertEquals(25, resultado.getRespuestasCorrectas()); // Verifica que se contaron las respuestas correctas
+        assertEquals(50, resultado.getIntentos()); // Verifica que se contaron los intentos
+        assertEquals(50.0, resultado.getPuntosMaximos(), 0.0001); // Verifica el puntaje obtenido
+    }
+
+    // Prueba que el número de consultas no depende del número de preguntas enviadas
+    @Test
+    void evaluarExamenConCincoPreguntas() {
+        ResultadoEvaluacion resultado = evaluacionService.evaluarExamen(respuestasDadas(5));
+
+        assertEquals(1, estadisticas.getPrepareStatementCount()); // Verifica que se ejecutó una sola consulta
+        assertEquals(3, resultado.getRespuestasCorrectas()); // Verifica que se contaron las respuestas correctas
+    }
+
+    // Prueba que un envío vacío no consulta la base de datos
+    @Test
+    void evaluarExamenSinPreguntas() {
+        ResultadoEvaluacion resultado = evaluacionService.evaluarExamen(new ArrayList<>());
+
+        assertEquals(0, estadisticas.getPrepareStatementCount()); // Verifica que no se ejecutaron consultas
+        assertEquals(0, resultado.getIntentos()); // Verifica que no hubo intentos
+    }
+
+    // Prueba que con la clave del examen en cache la evaluación no consulta la base de datos
+    @Test
+    void evaluarExamenConClaveEnCache() {
+        evaluacionService.evaluarExamen(respuestasDadasDelExamen(50)); // Primera evaluación compila la clave
+        estadisticas.clear();
+
+        ResultadoEvaluacion resultado = evaluacionService.evaluarExamen(respuestasDadasDelExamen(50));
+
+        assertEquals(0, estadisticas.getPrepareStatementCount()); // Verifica que no se ejecutaron consultas
+        assertEquals(examen.getExamenId(), resultado.getExamenId()); // Verifica que se identificó el examen
+        assertEquals(25, resultado.getRespuestasCorrectas()); // Verifica que se contaron las respuestas correctas
+        assertEquals(50.0, resultado.getPuntosMaximos(), 0.0001); // Verifica el puntaje obtenido
+    }
+
+    // Prueba que invalidar la clave obliga a compilarla de nuevo con una sola consulta
+    @Test
+    void evaluarExamenTrasInvalidarClave() {
+        evaluacionService.evaluarExamen(respuestasDadasDelExamen(10));
+        cacheClavesRespuestas.invalidar(examen.getExamenId());
+        estadisticas.clear();
+
+        evaluacionService.evaluarExamen(respuestasDadasDelExamen(10));
+
+        assertEquals(1, estadisticas.getPrepareStatementCount()); // Verifica que la clave se recompiló con una consulta
+    }
+
+    // Prueba que el plan de puntaje respeta los puntos y pesos definidos por pregunta
+    @Test
+    void evaluarExamenConPuntosYPesosPorPregunta() {
+        entityManager.find(Pregunta.class, preguntasGuardadas.get(0).getPreguntaId()).setPuntos(10.0);
+        entityManager.find(Pregunta.class, preguntasGuardadas.get(2).getPreguntaId()).setPeso(3.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        ResultadoEvaluacion resultado = evaluacionService.evaluarExamen(respuestasDadasDelExamen(5));
+
+        assertEquals(3, resultado.getRespuestasCorrectas()); // Verifica que se contaron las respuestas correctas
+        assertEquals(10.0 + 6.0 + 2.0, resultado.getPuntosMaximos(), 0.0001); // Verifica los puntos fijos, el peso y el puntaje por defecto
+    }
+
+    // Prueba que la evaluación por sesión traduce las opciones mostradas a las opciones originales
+    @Test
+    void evaluarSesionConOpcionesPermutadas() {
+        long[] preguntaIds = {preguntasGuardadas.get(0).getPreguntaId(), preguntasGuardadas.get(1).getPreguntaId(), preguntasGuardadas.get(2).getPreguntaId()};
+        byte[] permutaciones = {
+                (byte) SesionExamen.codigoDePermutacion(new int[]{0, 1, 2, 3}),
+                (byte) SesionExamen.codigoDePermutacion(new int[]{1, 0, 2, 3}),
+                (byte) SesionExamen.codigoDePermutacion(new int[]{1, 0, 2, 3})};
+        SesionExamen sesion = new SesionExamen(examen.getExamenId(), preguntaIds, permutaciones, new Date());
+
+        ResultadoEvaluacion resultado = evaluacionService.evaluarSesion(sesion, new int[]{1, 2, 1});
+
+        assertEquals(2, resultado.getRespuestasCorrectas()); // Verifica que la opción mostrada 2 corresponde a la opción original 1
+        assertEquals(3, resultado.getIntentos()); // Verifica que se contaron los intentos
+        assertEquals(4.0, resultado.getPuntosMaximos(), 0.0001); // Verifica el puntaje obtenido
+    }
+
+    // Prueba que la evaluación masiva en CSV devuelve un resultado por estudiante y reporta las filas inválidas
+    @Test
+    void evaluarEnLoteCsv() throws IOException {
+        long primera = preguntasGuardadas.get(0).getPreguntaId();
+        long segunda = preguntasGuardadas.get(1).getPreguntaId();
+        String csv = "estudiante,preguntaId,respuestaDada\n"
+                + "ana," + primera + ",A\n"
+                + "ana," + segunda + ",A\n"
+                + "luis," + primera + ",B\n"
+                + "luis,no-es-un-id,A\n"
+                + "luis," + segunda + ",\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        evaluacionService.evaluarEnLote(examen.getExamenId(), new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true, salida);
+
+        Map<String, JsonNode> lineas = new HashMap<>();
+        for (String linea : salida.toString("UTF-8").split("\n")) {
+            JsonNode nodo = new ObjectMapper().readTree(linea);
+            lineas.put(nodo.has("estudiante") ? nodo.get("estudiante").asText() : "error", nodo);
+        }
+
+        assertEquals(3, lineas.size()); // Verifica que hay dos resultados y un error
+        assertEquals(2, lineas.get("ana").get("respuestasCorrectas").asInt()); // Verifica las respuestas correctas de ana
+        assertEquals(4.0, lineas.get("ana").get("puntosMaximos").asDouble(), 0.0001); // Verifica el puntaje de ana
+        assertEquals(0, lineas.get("luis").get("respuestasCorrectas").asInt()); // Verifica las respuestas correctas de luis
+        assertEquals(1, lineas.get("luis").get("intentos").asInt()); // Verifica que la respuesta vacía no cuenta como intento
+        assertEquals(5, lineas.get("error").get("fila").asInt()); // Verifica que se reportó la fila inválida
+        verify(intentoService, times(2)).registrarIntento(anyString(), any(ResultadoEvaluacion.class)); // Verifica que se registró un intento por estudiante
+    }
+
+    // Prueba que un estudiante cuyas filas no son contiguas no se califica dos veces
+    @Test
+    void evaluarEnLoteRechazaFilasNoContiguas() throws IOException {
+        long primera = preguntasGuardadas.get(0).getPreguntaId();
+        long segunda = preguntasGuardadas.get(1).getPreguntaId();
+        String csv = "estudiante,preguntaId,respuestaDada\n"
+                + "ana," + primera + ",A\n"
+                + "luis," + primera + ",B\n"
+                + "ana," + segunda + ",A\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        evaluacionService.evaluarEnLote(examen.getExamenId(), new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true, salida);
+
+        List<JsonNode> lineas = leerLineas(salida);
+        assertEquals(3, lineas.size()); // Verifica que hay dos resultados y un error
+        JsonNode error = lineas.stream().filter(nodo -> nodo.has("fila")).findFirst().get();
+        assertEquals(4, error.get("fila").asInt()); // Verifica que se reportó la fila que reaparece
+        JsonNode ana = lineas.stream().filter(nodo -> "ana".equals(nodo.path("estudiante").asText())).findFirst().get();
+        assertEquals(1, ana.get("respuestasCorrectas").asInt()); // Verifica que ana se calificó solo con su primer bloque
+        verify(intentoService, times(2)).registrarIntento(anyString(), any(ResultadoEvaluacion.class)); // Verifica que no se calificó a ana dos veces
+    }
+
+    // Prueba que solo se recuerdan los últimos estudiantes calificados al buscar filas no contiguas
+    @Test
+    void evaluarEnLoteRecuerdaEstudiantesHastaElLimite() throws IOException {
+        long primera = preguntasGuardadas.get(0).getPreguntaId();
+        String csv = "estudiante,preguntaId,respuestaDada\n"
+                + "ana," + primera + ",A\n"
+                + "luis," + primera + ",B\n"
+                + "eva," + primera + ",B\n"
+                + "ana," + primera + ",A\n"
+                + "eva," + primera + ",B\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        int recordados = (int) ReflectionTestUtils.getField(evaluacionService, "estudiantesRecordados");
+        ReflectionTestUtils.setField(evaluacionService, "estudiantesRecordados", 2);
+        try {
+            evaluacionService.evaluarEnLote(examen.getExamenId(), new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true, salida);
+        } finally {
+            ReflectionTestUtils.setField(evaluacionService, "estudiantesRecordados", recordados);
+        }
+
+        List<JsonNode> lineas = leerLineas(salida);
+        assertEquals(1, lineas.stream().filter(nodo -> nodo.has("fila")).count()); // Verifica que solo se rechazó a eva, que seguía recordada
+        verify(intentoService, times(4)).registrarIntento(anyString(), any(ResultadoEvaluacion.class)); // Verifica que ana, ya olvidada, se calificó de nuevo
+    }
+
+    // Prueba que un fallo al calificar a un estudiante se reporta en la salida
+    @Test
+    void evaluarEnLoteReportaFallosAlCalificar() throws IOException {
+        long primera = preguntasGuardadas.get(0).getPreguntaId();
+        doThrow(new IllegalStateException("sin conexión")).when(intentoService).registrarIntento(eq("ana"), any(ResultadoEvaluacion.class));
+        String csv = "estudiante,preguntaId,respuestaDada\n"
+                + "ana," + primera + ",A\n"
+                + "luis," + primera + ",B\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        evaluacionService.evaluarEnLote(examen.getExamenId(), new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true, salida);
+
+        List<JsonNode> lineas = leerLineas(salida);
+        assertEquals(2, lineas.size()); // Verifica que hay una línea por estudiante
+        JsonNode ana = lineas.stream().filter(nodo -> "ana".equals(nodo.path("estudiante").asText())).findFirst().get();
+        assertEquals("sin conexión", ana.get("error").asText()); // Verifica que se reportó el fallo de ana
+        assertTrue(lineas.stream().anyMatch(nodo -> "luis".equals(nodo.path("estudiante").asText()) && nodo.has("respuestasCorrectas"))); // Verifica que luis se calificó
+    }
+
+    // Lee las líneas JSON escritas por la evaluación en lote
+    private List<JsonNode> leerLineas(ByteArrayOutputStream salida) throws IOException {
+        List<JsonNode> lineas = new ArrayList<>();
+        for (String linea : salida.toString("UTF-8").split("\n")) {
+            lineas.add(new ObjectMapper().readTree(linea));
+        }
+        return lineas;
+    }
+
+    // Construye un envío que indica el examen al que pertenecen las preguntas
+    private List<Pregunta> respuestasDadasDelExamen(int cantidad) {
+        Examen examenEnviado = new Examen();
+        examenEnviado.setExamenId(examen.getExamenId());
+        List<Pregunta> preguntas = respuestasDadas(cantidad);
+        preguntas.forEach(pregunta -> pregunta.setExamen(examenEnviado));
+        return preguntas;
+    }
+
+    // Construye un envío donde las preguntas pares se responden correctamente
+    private List<Pregunta> respuestasDadas(int cantidad) {
+        List<Pregunta> preguntas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Pregunta pregunta = new Pregunta();
+            pregunta.setPreguntaId(preguntasGuardadas.get(i).getPreguntaId());
+            pregunta.setRespuestaDada(i % 2 == 0 ? "A" : "B");
+            preguntas.add(pregunta);
+        }
+        return preguntas;
+    }
+}
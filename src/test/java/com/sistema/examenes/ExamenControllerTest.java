@@ -0,0 +1,114 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.controladores.ExamenController;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.servicios.ExamenService;
+import com.sistema.examenes.servicios.impl.CacheRespuestasCatalogo;
+import com.sistema.examenes.servicios.impl.VersionesCatalogo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ExamenControllerTest {
+
+    // Mock para el servicio de exámenes, que es el único que consulta la base de datos
+    @Mock
+    private ExamenService examenService;
+
+    // Versiones reales del catálogo
+    @Spy
+    private VersionesCatalogo versionesCatalogo = new VersionesCatalogo();
+
+    // Cache real de respuestas serializadas
+    @Spy
+    private CacheRespuestasCatalogo cacheRespuestasCatalogo = CacheRespuestasCatalogoTest.crear(new SimpleMeterRegistry());
+
+    // Inyección de las dependencias en el controlador
+    @InjectMocks
+    private ExamenController examenController;
+
+    private MockMvc mockMvc;
+
+    // Método que se ejecuta antes de cada prueba para crear el controlador y un examen activo
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(examenController).build();
+
+        Examen examen = new Examen();
+        examen.setExamenId(1L);
+        examen.setActivo(true);
+        when(examenService.obtenerExamenesActivos()).thenReturn(Collections.singletonList(examen));
+    }
+
+    // Prueba que una consulta con el ETag vigente responde 304 sin consultar el servicio
+    @Test
+    void listarExamenesActivosNoModificados() throws Exception {
+        String etag = mockMvc.perform(get("/examen/activo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].examenId").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+        clearInvocations(examenService);
+
+        mockMvc.perform(get("/examen/activo").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(examenService); // Verifica que el 304 no toca la base de datos
+    }
+
+    // Prueba que la respuesta comprimida tiene un ETag distinto y no valida la copia sin comprimir
+    @Test
+    void listarExamenesActivosConEtagPorCodificacion() throws Exception {
+        String etag = mockMvc.perform(get("/examen/activo"))
+                .andReturn().getResponse().getHeader("ETag");
+        String etagGzip = mockMvc.perform(get("/examen/activo").header("Accept-Encoding", "gzip"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotEquals(etag, etagGzip); // Verifica que cada codificación tiene su propio ETag
+        mockMvc.perform(get("/examen/activo").header("Accept-Encoding", "gzip").header("If-None-Match", etag))
+                .andExpect(status().isOk()); // Verifica que la copia sin comprimir no sirve para la comprimida
+        mockMvc.perform(get("/examen/activo").header("Accept-Encoding", "gzip").header("If-None-Match", etagGzip))
+                .andExpect(status().isNotModified()); // Verifica que la copia comprimida sigue vigente
+    }
+
+    // Prueba que If-Modified-Since también responde 304 sin consultar el servicio
+    @Test
+    void listarExamenesActivosNoModificadosDesdeFecha() throws Exception {
+        String modificado = mockMvc.perform(get("/examen/activo"))
+                .andReturn().getResponse().getHeader("Last-Modified");
+        clearInvocations(examenService);
+
+        mockMvc.perform(get("/examen/activo").header("If-Modified-Since", modificado))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(examenService); // Verifica que el 304 no toca la base de datos
+    }
+
+    // Prueba que un cambio en los exámenes invalida el ETag anterior
+    @Test
+    void listarExamenesActivosTrasModificacion() throws Exception {
+        String etag = mockMvc.perform(get("/examen/categoria/activo/3"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        versionesCatalogo.incrementar(VersionesCatalogo.EXAMENES);
+
+        mockMvc.perform(get("/examen/categoria/activo/3").header("If-None-Match", etag))
+                .andExpect(status().isOk()); // Verifica que se vuelve a consultar tras el cambio
+        verify(examenService, times(2)).obtenerExamenesActivosDeUnaCategoria(any());
+    }
+}
@@ -2,15 +2,25 @@ package com.sistema.examenes;
 
 import com.sistema.examenes.modelo.Categoria;
 import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pagina;
 import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.servicios.impl.CacheClavesRespuestas;
+import com.sistema.examenes.servicios.impl.CacheInstantaneasPreguntas;
+import com.sistema.examenes.servicios.impl.EliminacionMasiva;
+import com.sistema.examenes.servicios.impl.IndiceBusqueda;
 import com.sistema.examenes.servicios.impl.ExamenServiceImpl;
+import com.sistema.examenes.servicios.impl.VersionesCatalogo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +36,30 @@ class ExamenServiceImplTest {
     @Mock
     private ExamenRepository examenRepository;
 
+    // Mock para la cache de claves de respuestas
+    @Mock
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    // Mock para la cache de instantáneas de preguntas
+    @Mock
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    // Mock para las versiones del catálogo
+    @Mock
+    private VersionesCatalogo versionesCatalogo;
+
+    // Mock para la publicación de cambios en los exámenes
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // Mock para el índice de búsqueda
+    @Mock
+    private IndiceBusqueda indiceBusqueda;
+
+    // Mock para el borrado masivo de exámenes y preguntas
+    @Mock
+    private EliminacionMasiva eliminacionMasiva;
+
     // Inyección del mock en la instancia de ExamenServiceImpl
     @InjectMocks
     private ExamenServiceImpl examenService;
@@ -38,6 +72,7 @@ class ExamenServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(examenService, "limiteMaximo", 10);
         categoria = new Categoria();
         categoria.setCategoriaId(1L);
 
@@ -63,6 +98,18 @@ class ExamenServiceImplTest {
         assertEquals(examen.getTitulo(), nuevoExamen.getTitulo()); // Verifica que el título del examen es correcto
     }
 
+    // Prueba que al guardar un examen se calcula su plan de puntaje
+    @Test
+    void agregarExamenCalculaPlanDePuntaje() {
+        examen.setPuntosMaximos(20.0);
+        examen.setNumeroDePreguntas(10);
+        when(examenRepository.save(any(Examen.class))).thenReturn(examen);
+
+        Examen nuevoExamen = examenService.agregarExamen(examen);
+
+        assertEquals(2.0, nuevoExamen.getPuntosPorPregunta(), 0.0001); // Verifica los puntos por pregunta
+    }
+
     // Prueba para el método actualizarExamen
     @Test
     void actualizarExamen() {
@@ -77,6 +124,22 @@ class ExamenServiceImplTest {
         assertEquals(examen.getTitulo(), examenActualizado.getTitulo()); // Verifica que el título del examen es correcto
     }
 
+    // Prueba que la versión enviada por el cliente se reemplaza por la guardada antes de actualizar
+    @Test
+    void actualizarExamenIgnoraLaVersionRecibida() {
+        Examen guardado = new Examen();
+        guardado.setExamenId(1L);
+        guardado.setVersion(4L);
+        when(examenRepository.findById(1L)).thenReturn(Optional.of(guardado));
+        when(examenRepository.save(any(Examen.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        examen.setVersion(null);
+        assertEquals(4L, examenService.actualizarExamen(examen).getVersion()); // Verifica que una petición sin versión conserva la guardada
+
+        examen.setVersion(0L);
+        assertEquals(4L, examenService.actualizarExamen(examen).getVersion()); // Verifica que no se acepta una versión arbitraria
+    }
+
     // Prueba para el método obtenerExamenes
     @Test
     void obtenerExamenes() {
@@ -112,14 +175,13 @@ class ExamenServiceImplTest {
     // Prueba para el método eliminarExamen
     @Test
     void eliminarExamen() {
-        // Simulación del comportamiento del repositorio al eliminar un examen
-        doNothing().when(examenRepository).delete(any(Examen.class));
-
         // Llamada al método eliminarExamen del servicio
         examenService.eliminarExamen(1L);
 
         // Verificación de la prueba
-        verify(examenRepository, times(1)).delete(any(Examen.class)); // Verifica que el método delete se llamó una vez
+        verify(eliminacionMasiva, times(1)).eliminarExamen(1L); // Verifica que el examen se eliminó con borrado masivo
+        verify(examenRepository, never()).delete(any(Examen.class)); // Verifica que no se cargó el examen para borrarlo en cascada
+        verify(indiceBusqueda, times(1)).eliminarExamen(1L); // Verifica que el examen salió del índice de búsqueda
     }
 
     // Prueba para el método listarExamenesDeUnaCategoria
@@ -175,4 +237,31 @@ class ExamenServiceImplTest {
         assertNotNull(examenesActivos); // Verifica que los exámenes activos obtenidos no son nulos
         assertEquals(1, examenesActivos.size()); // Verifica que el tamaño de la lista de exámenes activos es el esperado
     }
+
+    // Prueba que la paginación por cursor usa la consulta filtrada y devuelve el siguiente cursor
+    @Test
+    void obtenerExamenesPaginados() {
+        Examen siguiente = new Examen();
+        siguiente.setExamenId(2L);
+        Examen sobrante = new Examen();
+        sobrante.setExamenId(3L);
+        when(examenRepository.findByCategoriaCategoriaIdAndActivoAndExamenIdGreaterThanOrderByExamenIdAsc(1L, true, 0L, PageRequest.of(0, 3)))
+                .thenReturn(new ArrayList<>(Arrays.asList(examen, siguiente, sobrante)));
+
+        Pagina<Examen> pagina = examenService.obtenerExamenes(null, 2, true, 1L);
+
+        assertEquals(2, pagina.getElementos().size()); // Verifica el tamaño de la página
+        assertEquals(2L, pagina.getSiguienteCursor()); // Verifica que el cursor apunta al último examen entregado
+    }
+
+    // Prueba que el límite de la página no supera el máximo configurado
+    @Test
+    void obtenerExamenesConLimiteMaximo() {
+        when(examenRepository.findByExamenIdGreaterThanOrderByExamenIdAsc(5L, PageRequest.of(0, 11))).thenReturn(Arrays.asList(examen));
+
+        Pagina<Examen> pagina = examenService.obtenerExamenes(5L, 1000, null, null);
+
+        assertEquals(1, pagina.getElementos().size()); // Verifica los exámenes de la última página
+        assertNull(pagina.getSiguienteCursor()); // Verifica que no hay más páginas
+    }
 }
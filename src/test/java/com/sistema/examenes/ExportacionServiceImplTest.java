@@ -0,0 +1,141 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Intento;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.servicios.ExportacionService;
+import com.sistema.examenes.servicios.impl.ExportacionServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureJson
+@Import(ExportacionServiceImpl.class)
+class ExportacionServiceImplTest {
+
+    @Autowired
+    private ExportacionServiceImpl exportacionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Categoria categoria;
+    private Examen primero;
+    private Examen segundo;
+
+    // Estadísticas de Hibernate para verificar que no se cargan entidades
+    private Statistics estadisticas;
+
+    // Método que se ejecuta antes de cada prueba para persistir una categoría con dos exámenes, sus preguntas e intentos
+    @BeforeEach
+    void setUp() {
+        categoria = new Categoria();
+        categoria.setTitulo("Ciencias");
+        entityManager.persist(categoria);
+        primero = examen("Física", 3);
+        segundo = examen("Química", 2);
+        entityManager.persist(new Intento("ana", primero.getExamenId(), 8.0, 2, 3, LocalDateTime.of(2024, 3, 1, 10, 30)));
+        entityManager.persist(new Intento("luis", primero.getExamenId(), 4.0, 1, 3, LocalDateTime.of(2024, 3, 2, 11, 0)));
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    // Prueba que el CSV tiene encabezado, una fila por pregunta y escapa las comas y comillas
+    @Test
+    void exportarPreguntasEnCsv() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportarPreguntasDelExamen(primero.getExamenId(), ExportacionService.CSV, salida);
+
+        String[] lineas = salida.toString("UTF-8").split("\n");
+        assertEquals(4, lineas.length); // Verifica el encabezado y las tres preguntas
+        assertTrue(lineas[0].startsWith("preguntaId,examenId,contenido")); // Verifica el encabezado
+        assertTrue(lineas[1].contains(",\"Física, \"\"pregunta\"\" 0\",")); // Verifica el escape del contenido
+        assertEquals(0, estadisticas.getEntityLoadCount()); // Verifica que las filas se leyeron como proyecciones
+    }
+
+    // Prueba que el JSON es un arreglo con las preguntas en orden
+    @Test
+    void exportarPreguntasEnJson() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportarPreguntasDelExamen(primero.getExamenId(), ExportacionService.JSON, salida);
+
+        JsonNode preguntas = objectMapper.readTree(salida.toByteArray());
+        assertEquals(3, preguntas.size()); // Verifica la cantidad de preguntas
+        assertEquals("Física, \"pregunta\" 0", preguntas.get(0).get("contenido").asText()); // Verifica el contenido
+        assertEquals("A", preguntas.get(0).get("respuesta").asText()); // Verifica que se exporta la respuesta
+        assertTrue(preguntas.get(0).get("preguntaId").asLong() < preguntas.get(1).get("preguntaId").asLong()); // Verifica el orden
+        assertEquals(0, estadisticas.getEntityLoadCount()); // Verifica que las filas se leyeron como proyecciones
+    }
+
+    // Prueba que la categoría se exporta en NDJSON, una línea por pregunta de todos sus exámenes
+    @Test
+    void exportarPreguntasDeLaCategoriaEnNdjson() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportarPreguntasDeLaCategoria(categoria.getCategoriaId(), ExportacionService.NDJSON, salida);
+
+        String[] lineas = salida.toString("UTF-8").split("\n");
+        assertEquals(5, lineas.length); // Verifica las preguntas de ambos exámenes
+        assertEquals(primero.getExamenId().longValue(), objectMapper.readTree(lineas[0]).get("examenId").asLong()); // Verifica que se agrupan por examen
+        assertEquals(segundo.getExamenId().longValue(), objectMapper.readTree(lineas[4]).get("examenId").asLong()); // Verifica el último examen
+    }
+
+    // Prueba que los resultados del examen se exportan con su fecha
+    @Test
+    void exportarResultadosEnJson() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportarResultadosDelExamen(primero.getExamenId(), ExportacionService.JSON, salida);
+
+        JsonNode intentos = objectMapper.readTree(salida.toByteArray());
+        assertEquals(2, intentos.size()); // Verifica la cantidad de intentos
+        assertEquals("ana", intentos.get(0).get("username").asText()); // Verifica el estudiante
+        assertEquals(8.0, intentos.get(0).get("puntosMaximos").asDouble(), 0.0001); // Verifica el puntaje
+        assertEquals("2024-03-01T10:30", intentos.get(0).get("fecha").asText()); // Verifica la fecha
+        assertEquals(0, estadisticas.getEntityLoadCount()); // Verifica que las filas se leyeron como proyecciones
+    }
+
+    private Examen examen(String titulo, int cantidad) {
+        Examen examen = new Examen();
+        examen.setTitulo(titulo);
+        examen.setCategoria(categoria);
+        entityManager.persist(examen);
+        for (int i = 0; i < cantidad; i++) {
+            Pregunta pregunta = new Pregunta();
+            pregunta.setContenido(titulo + ", \"pregunta\" " + i);
+            pregunta.setOpcion1("A");
+            pregunta.setOpcion2("B");
+            pregunta.setRespuesta("A");
+            pregunta.setExamen(examen);
+            entityManager.persist(pregunta);
+        }
+        return examen;
+    }
+}
@@ -0,0 +1,89 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.controladores.ImagenController;
+import com.sistema.examenes.servicios.AlmacenImagenesService;
+import com.sistema.examenes.servicios.UsuarioService;
+import com.sistema.examenes.servicios.impl.AlmacenImagenesServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ImagenControllerTest {
+
+    @TempDir
+    Path directorio;
+
+    private MockMvc mockMvc;
+
+    private String nombre;
+
+    // Método que se ejecuta antes de cada prueba para guardar una imagen PNG en un almacén temporal
+    @BeforeEach
+    void setUp() throws Exception {
+        AlmacenImagenesService almacenImagenesService = new AlmacenImagenesServiceImpl(directorio.toString(), 1024);
+        ImagenController imagenController = new ImagenController();
+        ReflectionTestUtils.setField(imagenController, "almacenImagenesService", almacenImagenesService);
+        ReflectionTestUtils.setField(imagenController, "usuarioService", Mockito.mock(UsuarioService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(imagenController).build();
+
+        MvcResult subida = mockMvc.perform(multipart("/imagen/").file(new MockMultipartFile("archivo", AlmacenImagenesServiceImplTest.PNG)))
+                .andExpect(status().isOk())
+                .andReturn();
+        nombre = subida.getResponse().getContentAsString().replaceAll(".*\"imagen\":\"([^\"]+)\".*", "$1");
+    }
+
+    // Prueba que la imagen se entrega completa con un ETag fuerte
+    @Test
+    void servirImagen() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/imagen/" + nombre))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + nombre.substring(0, 64) + "\"")) // Verifica el ETag por contenido
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().contentType("image/png"))
+                .andReturn();
+
+        assertArrayEquals(AlmacenImagenesServiceImplTest.PNG, resultado.getResponse().getContentAsByteArray()); // Verifica el contenido
+    }
+
+    // Prueba que un ETag conocido responde 304 sin cuerpo
+    @Test
+    void servirImagenNoModificada() throws Exception {
+        mockMvc.perform(get("/imagen/" + nombre).header("If-None-Match", "\"" + nombre.substring(0, 64) + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    // Prueba que se entrega solo el rango de bytes solicitado
+    @Test
+    void servirRangoDeImagen() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/imagen/" + nombre).header("Range", "bytes=4-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 4-7/" + AlmacenImagenesServiceImplTest.PNG.length))
+                .andReturn();
+
+        assertArrayEquals(Arrays.copyOfRange(AlmacenImagenesServiceImplTest.PNG, 4, 8), resultado.getResponse().getContentAsByteArray()); // Verifica los bytes del rango
+    }
+
+    // Prueba que un rango fuera del archivo se rechaza y una imagen inexistente no se encuentra
+    @Test
+    void servirRangoInvalido() throws Exception {
+        mockMvc.perform(get("/imagen/" + nombre).header("Range", "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+        mockMvc.perform(get("/imagen/" + nombre.replace('a', 'b').replace('0', '1')))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,106 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.servicios.impl.CacheClavesRespuestas;
+import com.sistema.examenes.servicios.impl.CacheInstantaneasPreguntas;
+import com.sistema.examenes.servicios.impl.ImportacionPreguntasServiceImpl;
+import com.sistema.examenes.servicios.impl.IndiceBusqueda;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Mide filas por segundo al importar un banco de 10.000 preguntas en lotes JDBC contra insertarlas una por una
+// Se ejecuta desde el método main con el classpath de pruebas (target/test-classes y dependencias de test)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportacionPreguntasBenchmark {
+
+    private static final int FILAS = 10_000;
+
+    private static final String INSERTAR_PREGUNTA = "insert into preguntas " +
+            "(contenido, imagen, opcion1, opcion2, opcion3, opcion4, respuesta, peso, puntos, examen_examen_id) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ImportacionPreguntasServiceImpl importacionService;
+
+    private byte[] csv;
+
+    // Crea una base H2 en memoria con la tabla de preguntas y un CSV de 10.000 filas
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:importacion;DB_CLOSE_DELAY=-1;MODE=MySQL", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table preguntas (pregunta_id bigint auto_increment primary key, contenido varchar(5000), "
+                + "imagen varchar(255), opcion1 varchar(255), opcion2 varchar(255), opcion3 varchar(255), opcion4 varchar(255), "
+                + "respuesta varchar(255), peso double, puntos double, examen_examen_id bigint)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        ExamenRepository examenRepository = Mockito.mock(ExamenRepository.class);
+        Mockito.when(examenRepository.existsById(1L)).thenReturn(true);
+        importacionService = new ImportacionPreguntasServiceImpl();
+        ReflectionTestUtils.setField(importacionService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importacionService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(importacionService, "examenRepository", examenRepository);
+        ReflectionTestUtils.setField(importacionService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importacionService, "cacheClavesRespuestas", Mockito.mock(CacheClavesRespuestas.class));
+        ReflectionTestUtils.setField(importacionService, "cacheInstantaneasPreguntas", Mockito.mock(CacheInstantaneasPreguntas.class));
+        ReflectionTestUtils.setField(importacionService, "indiceBusqueda", Mockito.mock(IndiceBusqueda.class));
+        ReflectionTestUtils.setField(importacionService, "tamanoLote", 1000);
+        ReflectionTestUtils.setField(importacionService, "maximoErrores", 1000);
+
+        StringBuilder contenido = new StringBuilder("contenido,opcion1,opcion2,opcion3,opcion4,respuesta\n");
+        for (int i = 1; i <= FILAS; i++) {
+            contenido.append("Contenido de la pregunta ").append(i).append(" con un enunciado de longitud habitual,")
+                    .append("Opción A,Opción B,Opción C,Opción D,Opción A\n");
+        }
+        csv = contenido.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void vaciar() {
+        jdbcTemplate.execute("truncate table preguntas");
+    }
+
+    // Lee el CSV de forma incremental y lo inserta en lotes de 1000 filas
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public long importarEnLotes() throws Exception {
+        return importacionService.importar(1L, new ByteArrayInputStream(csv), true).getImportadas();
+    }
+
+    // Inserta cada pregunta en su propia transacción, como al enviarlas de a una por POST /pregunta/
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public long insertarDeAUna() {
+        long insertadas = 0;
+        for (int i = 1; i <= FILAS; i++) {
+            String contenido = "Contenido de la pregunta " + i + " con un enunciado de longitud habitual";
+            insertadas += transactionTemplate.execute(estado -> jdbcTemplate.update(INSERTAR_PREGUNTA,
+                    contenido, null, "Opción A", "Opción B", "Opción C", "Opción D", "Opción A", null, null, 1L));
+        }
+        return insertadas;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ImportacionPreguntasBenchmark.class.getSimpleName()).build()).run();
+    }
+}
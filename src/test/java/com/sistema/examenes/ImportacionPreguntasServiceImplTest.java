@@ -0,0 +1,191 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.ResultadoImportacion;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.servicios.ExportacionService;
+import com.sistema.examenes.servicios.impl.CacheClavesRespuestas;
+import com.sistema.examenes.servicios.impl.CacheInstantaneasPreguntas;
+import com.sistema.examenes.servicios.impl.ExportacionServiceImpl;
+import com.sistema.examenes.servicios.impl.ImportacionPreguntasServiceImpl;
+import com.sistema.examenes.servicios.impl.IndiceBusqueda;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "examenes.importacion.lote=3")
+@AutoConfigureJson
+@Import({ImportacionPreguntasServiceImpl.class, ExportacionServiceImpl.class})
+class ImportacionPreguntasServiceImplTest {
+
+    @Autowired
+    private ImportacionPreguntasServiceImpl importacionService;
+
+    @Autowired
+    private ExportacionServiceImpl exportacionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Mocks para las caches y el índice que se actualizan al terminar la importación
+    @MockBean
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    @MockBean
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @MockBean
+    private IndiceBusqueda indiceBusqueda;
+
+    private Examen examen;
+
+    // Método que se ejecuta antes de cada prueba para persistir el examen de destino
+    @BeforeEach
+    void setUp() {
+        examen = new Examen();
+        examen.setTitulo("Examen de Geografía");
+        entityManager.persist(examen);
+        entityManager.flush();
+    }
+
+    // Prueba que el CSV se importa en lotes y que las filas inválidas se informan con su número de línea
+    @Test
+    void importarCsv() throws IOException {
+        StringBuilder csv = new StringBuilder("contenido,opcion1,opcion2,opcion3,opcion4,respuesta,puntos\n");
+        for (int i = 1; i <= 7; i++) {
+            csv.append("\"¿Capital, número ").append(i).append("?\",Lima,Quito,,,Lima,2\n");
+        }
+        csv.append(",Lima,Quito,,,Lima,\n");
+        csv.append("¿Río más largo?,Amazonas,Nilo,,,Danubio,\n");
+        csv.append("¿Montaña más alta?,Everest,K2,,,Everest,muchos\n");
+
+        ResultadoImportacion resultado = importacionService.importar(examen.getExamenId(), entrada(csv.toString()), true);
+
+        assertEquals(7, resultado.getImportadas()); // Verifica las filas válidas, repartidas en lotes de 3
+        assertEquals(3, resultado.getRechazadas()); // Verifica las filas inválidas
+        assertEquals(9, resultado.getErrores().get(0).getFila()); // Verifica la línea sin contenido
+        assertEquals("La respuesta debe coincidir con una de las opciones", resultado.getErrores().get(1).getError()); // Verifica la validación de la respuesta
+        assertEquals(11, resultado.getErrores().get(2).getFila()); // Verifica la línea con puntos inválidos
+        assertEquals(7, contarPreguntas()); // Verifica las preguntas guardadas
+        assertEquals("¿Capital, número 1?", jdbcTemplate.queryForObject("select contenido from preguntas order by pregunta_id limit 1", String.class)); // Verifica las comillas del CSV
+        verify(cacheClavesRespuestas).invalidar(examen.getExamenId()); // Verifica que se invalidó la clave del examen
+        verify(indiceBusqueda).indexarPreguntasDelExamen(examen.getExamenId()); // Verifica que se indexaron las preguntas nuevas
+    }
+
+    // Prueba que un campo entre comillas con saltos de línea se lee como un solo registro
+    @Test
+    void importarCsvConSaltosDeLinea() throws IOException {
+        String csv = "contenido,opcion1,opcion2,opcion3,opcion4,respuesta,puntos\n"
+                + "\"Observe el mapa:\n¿cuál es la \"\"capital\"\", si la hay?\",Lima,\"Ninguna, \"\"ninguno\"\"\",,,Lima,\n"
+                + "¿Río más largo?,Amazonas,Nilo,,,Amazonas,\n"
+                + ",Lima,Quito,,,Lima,\n";
+
+        ResultadoImportacion resultado = importacionService.importar(examen.getExamenId(), entrada(csv), true);
+
+        assertEquals(2, resultado.getImportadas()); // Verifica que el campo con saltos de línea no partió el registro
+        assertEquals(1, resultado.getRechazadas()); // Verifica la fila sin contenido
+        assertEquals(5, resultado.getErrores().get(0).getFila()); // Verifica que la línea del error cuenta las líneas del campo
+        assertEquals("Observe el mapa:\n¿cuál es la \"capital\", si la hay?", jdbcTemplate.queryForObject("select contenido from preguntas order by pregunta_id limit 1", String.class)); // Verifica el contenido completo
+    }
+
+    // Prueba que un arreglo JSON se importa y que un elemento con tipos inválidos no detiene la importación
+    @Test
+    void importarJson() throws IOException {
+        String json = "[{\"contenido\":\"¿2 + 2?\",\"opcion1\":\"4\",\"opcion2\":\"5\",\"respuesta\":\"4\",\"peso\":1.5},"
+                + "{\"contenido\":\"¿3 + 3?\",\"opcion1\":\"6\",\"opcion2\":\"7\",\"respuesta\":\"6\",\"puntos\":\"muchos\"},"
+                + "{\"contenido\":\"¿4 + 4?\",\"opcion1\":\"8\",\"opcion2\":\"9\",\"respuesta\":\"8\"}]";
+
+        ResultadoImportacion resultado = importacionService.importar(examen.getExamenId(), entrada(json), false);
+
+        assertEquals(2, resultado.getImportadas()); // Verifica los elementos válidos
+        assertEquals(1, resultado.getRechazadas()); // Verifica el elemento con puntos inválidos
+        assertEquals(2, resultado.getErrores().get(0).getFila()); // Verifica la posición del elemento rechazado
+        assertEquals(1.5, jdbcTemplate.queryForObject("select peso from preguntas where contenido = '¿2 + 2?'", Double.class), 0.0001); // Verifica el peso guardado
+    }
+
+    // Prueba que en NDJSON una línea mal formada detiene la lectura sin perder las filas anteriores
+    @Test
+    void importarNdjsonMalFormado() throws IOException {
+        String ndjson = "{\"contenido\":\"¿Color del cielo?\",\"opcion1\":\"Azul\",\"opcion2\":\"Verde\",\"respuesta\":\"Azul\"}\n"
+                + "{\"contenido\":\"¿Color del pasto?\",\"opcion1\":\n";
+
+        ResultadoImportacion resultado = importacionService.importar(examen.getExamenId(), entrada(ndjson), false);
+
+        assertEquals(1, resultado.getImportadas()); // Verifica la fila anterior al error
+        assertEquals(1, resultado.getRechazadas()); // Verifica que se informó el error de formato
+        assertTrue(resultado.getErrores().get(0).getError().startsWith("JSON mal formado")); // Verifica el mensaje del error
+    }
+
+    // Prueba que las preguntas exportadas en CSV, con saltos de línea dentro de los campos, se vuelven a importar iguales
+    @Test
+    void importarCsvExportado() throws IOException {
+        entityManager.persist(pregunta("Observe el mapa:\n¿cuál es la \"capital\", si la hay?", "Lima"));
+        entityManager.persist(pregunta("¿Río más largo?", "Amazonas"));
+        Examen destino = new Examen();
+        destino.setTitulo("Copia de Geografía");
+        entityManager.persist(destino);
+        entityManager.flush();
+        ByteArrayOutputStream exportado = new ByteArrayOutputStream();
+        exportacionService.exportarPreguntasDelExamen(examen.getExamenId(), ExportacionService.CSV, exportado);
+
+        ResultadoImportacion resultado = importacionService.importar(destino.getExamenId(), new ByteArrayInputStream(exportado.toByteArray()), true);
+
+        assertEquals(2, resultado.getImportadas()); // Verifica que cada pregunta se leyó como un solo registro
+        assertEquals(0, resultado.getRechazadas()); // Verifica que ninguna fila quedó partida
+        assertEquals(jdbcTemplate.queryForList("select contenido from preguntas where examen_examen_id = ? order by pregunta_id", String.class, examen.getExamenId()),
+                jdbcTemplate.queryForList("select contenido from preguntas where examen_examen_id = ? order by pregunta_id", String.class, destino.getExamenId())); // Verifica que el contenido se conservó
+    }
+
+    // Prueba que un CSV sin las columnas obligatorias no importa nada
+    @Test
+    void importarCsvSinColumnaObligatoria() throws IOException {
+        ResultadoImportacion resultado = importacionService.importar(examen.getExamenId(), entrada("contenido,opcion1,opcion2\nA,B,C\n"), true);
+
+        assertEquals(0, resultado.getImportadas()); // Verifica que no se importó ninguna fila
+        assertEquals("Falta la columna respuesta", resultado.getErrores().get(0).getError()); // Verifica la columna faltante
+        verify(indiceBusqueda, never()).indexarPreguntasDelExamen(examen.getExamenId()); // Verifica que no se reindexó el examen
+    }
+
+    // Prueba que importar a un examen inexistente no devuelve resultado
+    @Test
+    void importarExamenInexistente() throws IOException {
+        assertNull(importacionService.importar(-1L, entrada("contenido,opcion1,opcion2,respuesta\n"), true)); // Verifica que el examen no existe
+    }
+
+    private Pregunta pregunta(String contenido, String respuesta) {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setContenido(contenido);
+        pregunta.setOpcion1(respuesta);
+        pregunta.setOpcion2("Ninguna, \"ninguno\"");
+        pregunta.setRespuesta(respuesta);
+        pregunta.setExamen(examen);
+        return pregunta;
+    }
+
+    private InputStream entrada(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long contarPreguntas() {
+        return jdbcTemplate.queryForObject("select count(*) from preguntas where examen_examen_id = ?", Long.class, examen.getExamenId());
+    }
+}
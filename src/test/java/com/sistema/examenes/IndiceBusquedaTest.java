@@ -0,0 +1,176 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pagina;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.PreguntaIndexada;
+import com.sistema.examenes.modelo.ResultadoBusqueda;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.impl.IndiceBusqueda;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class IndiceBusquedaTest {
+
+    @TempDir
+    Path directorio;
+
+    private IndiceBusqueda indiceBusqueda;
+
+    private PreguntaRepository preguntaRepository;
+
+    private ExamenRepository examenRepository;
+
+    private Examen examen;
+
+    // Método que se ejecuta antes de cada prueba para abrir un índice vacío con un examen y tres preguntas
+    @BeforeEach
+    void setUp() throws Exception {
+        preguntaRepository = Mockito.mock(PreguntaRepository.class);
+        examenRepository = Mockito.mock(ExamenRepository.class);
+        indiceBusqueda = new IndiceBusqueda(directorio.toString(), 60, 2);
+        ReflectionTestUtils.setField(indiceBusqueda, "preguntaRepository", preguntaRepository);
+        ReflectionTestUtils.setField(indiceBusqueda, "examenRepository", examenRepository);
+        indiceBusqueda.abrir();
+
+        examen = new Examen();
+        examen.setExamenId(1L);
+        examen.setTitulo("Geografía de América");
+        examen.setDescripcion("Capitales, ríos y montañas");
+        indiceBusqueda.indexarExamen(examen);
+        indiceBusqueda.indexarPregunta(pregunta(10L, "¿Cuál es la capital de Perú?", "Lima", "Cusco"));
+        indiceBusqueda.indexarPregunta(pregunta(11L, "¿Qué río atraviesa Asunción?", "Paraguay", "Paraná"));
+        indiceBusqueda.indexarPregunta(pregunta(12L, "Montaña más alta", "Aconcagua", "Capital del Perú no aplica"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        indiceBusqueda.cerrar();
+    }
+
+    // Prueba que la búsqueda ignora acentos y mayúsculas
+    @Test
+    void buscarSinAcentos() throws Exception {
+        Pagina<ResultadoBusqueda> pagina = indiceBusqueda.buscar("GEOGRAFIA", null, null, null);
+
+        assertEquals(1, pagina.getElementos().size()); // Verifica que se encuentra el examen
+        assertEquals("examen", pagina.getElementos().get(0).getTipo()); // Verifica el tipo del resultado
+        assertEquals("Geografía de América", pagina.getElementos().get(0).getTitulo()); // Verifica el título original
+    }
+
+    // Prueba que el plural encuentra el singular y que el contenido pesa más que las opciones
+    @Test
+    void buscarConRanking() throws Exception {
+        Pagina<ResultadoBusqueda> pagina = indiceBusqueda.buscar("capitales peru", IndiceBusqueda.PREGUNTA, null, null);
+
+        assertEquals(2, pagina.getElementos().size()); // Verifica las preguntas que mencionan capital y Perú
+        assertEquals(10L, pagina.getElementos().get(0).getId()); // Verifica que el enunciado tiene más peso que las opciones
+        assertEquals(1L, pagina.getElementos().get(0).getExamenId()); // Verifica el examen de la pregunta
+        assertNull(pagina.getSiguienteCursor()); // Verifica que no hay más páginas
+    }
+
+    // Prueba la paginación de resultados respetando el límite máximo
+    @Test
+    void buscarPaginado() throws Exception {
+        Pagina<ResultadoBusqueda> primera = indiceBusqueda.buscar("capital | rio | montaña", null, null, 10);
+        Pagina<ResultadoBusqueda> segunda = indiceBusqueda.buscar("capital | rio | montaña", null, primera.getSiguienteCursor(), 10);
+
+        assertEquals(2, primera.getElementos().size()); // Verifica que el límite se ajusta al máximo
+        assertEquals(2L, primera.getSiguienteCursor()); // Verifica el desplazamiento de la siguiente página
+        assertEquals(2, segunda.getElementos().size()); // Verifica los resultados restantes
+        assertNull(segunda.getSiguienteCursor()); // Verifica que es la última página
+    }
+
+    // Prueba que eliminar un examen elimina también sus preguntas del índice
+    @Test
+    void eliminarExamen() throws Exception {
+        indiceBusqueda.eliminarExamen(1L);
+
+        assertTrue(indiceBusqueda.buscar("capital", null, null, null).getElementos().isEmpty()); // Verifica que no quedan preguntas
+        assertTrue(indiceBusqueda.buscar("geografia", null, null, null).getElementos().isEmpty()); // Verifica que no queda el examen
+    }
+
+    // Prueba que la reconstrucción reemplaza el índice con el contenido de la base de datos
+    @Test
+    void reconstruir() throws Exception {
+        Map<String, Object> fila = new HashMap<>();
+        fila.put("preguntaId", 20L);
+        fila.put("contenido", "¿Quién escribió el Quijote?");
+        fila.put("opcion1", "Cervantes");
+        fila.put("examenId", 2L);
+        PreguntaIndexada indexada = new SpelAwareProxyProjectionFactory().createProjection(PreguntaIndexada.class, fila);
+        when(examenRepository.findAll()).thenReturn(Collections.emptyList());
+        when(preguntaRepository.streamPreguntasParaIndice()).thenReturn(Stream.of(indexada));
+
+        assertEquals(1, indiceBusqueda.reconstruir()); // Verifica los documentos indexados
+        assertTrue(indiceBusqueda.buscar("geografia", null, null, null).getElementos().isEmpty()); // Verifica que se descartó el índice anterior
+        assertEquals(20L, indiceBusqueda.buscar("cervantes", null, null, null).getElementos().get(0).getId()); // Verifica la nueva pregunta
+    }
+
+    // Prueba que durante la reconstrucción se sigue buscando en el índice anterior y que un borrado no reaparece
+    @Test
+    void reconstruirConEscriturasDuranteLaCarga() throws Exception {
+        List<Integer> resultadosDurante = new ArrayList<>();
+        when(examenRepository.findAll()).thenReturn(Collections.singletonList(examen));
+        when(preguntaRepository.streamPreguntasParaIndice()).thenReturn(Stream.of(
+                indexada(20L, "¿Quién escribió el Quijote?", "Cervantes"),
+                indexada(21L, "¿Quién pintó Las Meninas?", "Velázquez")).peek(p -> {
+            if (p.getPreguntaId() == 21L) {
+                indiceBusqueda.eliminarPregunta(20L);
+                resultadosDurante.add(contar("geografia"));
+            }
+        }));
+
+        assertEquals(3, indiceBusqueda.reconstruir()); // Verifica los documentos indexados
+        assertEquals(Collections.singletonList(1), resultadosDurante); // Verifica que el índice anterior siguió disponible
+        assertEquals(0, contar("cervantes")); // Verifica que la pregunta borrada durante la carga no reaparece
+        assertEquals(1, contar("velazquez")); // Verifica la pregunta nueva
+        assertEquals(0, contar("asuncion")); // Verifica que se descartó el índice anterior
+    }
+
+    private int contar(String consulta) {
+        try {
+            return indiceBusqueda.buscar(consulta, null, null, null).getElementos().size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PreguntaIndexada indexada(Long id, String contenido, String opcion1) {
+        Map<String, Object> fila = new HashMap<>();
+        fila.put("preguntaId", id);
+        fila.put("contenido", contenido);
+        fila.put("opcion1", opcion1);
+        fila.put("examenId", 2L);
+        return new SpelAwareProxyProjectionFactory().createProjection(PreguntaIndexada.class, fila);
+    }
+
+    private Pregunta pregunta(Long id, String contenido, String opcion1, String opcion2) {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setPreguntaId(id);
+        pregunta.setContenido(contenido);
+        pregunta.setOpcion1(opcion1);
+        pregunta.setOpcion2(opcion2);
+        pregunta.setExamen(examen);
+        return pregunta;
+    }
+}
@@ -0,0 +1,112 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.ResultadoEvaluacion;
+import com.sistema.examenes.servicios.impl.IntentoServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IntentoServiceImplTest {
+
+    // Mock para el acceso JDBC que inserta los lotes
+    private JdbcTemplate jdbcTemplate;
+
+    // Registro de métricas en memoria
+    private MeterRegistry meterRegistry;
+
+    // Buffer con capacidad para tres intentos y lotes de dos
+    private IntentoServiceImpl intentoService;
+
+    // Método que se ejecuta antes de cada prueba para crear el buffer con un intervalo de vaciado largo
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        intentoService = new IntentoServiceImpl(3, 2, 60000);
+        ReflectionTestUtils.setField(intentoService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(intentoService, "meterRegistry", meterRegistry);
+        intentoService.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        intentoService.detener();
+    }
+
+    // Prueba que el vaciado inserta los intentos acumulados en lotes
+    @Test
+    @SuppressWarnings("unchecked")
+    void vaciarInsertaEnLotes() {
+        intentoService.registrarIntento("testuser", new ResultadoEvaluacion(1L, 10, 1, 1));
+        assertEquals(1.0, meterRegistry.get("intentos.buffer.profundidad").gauge().value()); // Verifica la profundidad del buffer
+
+        intentoService.vaciar();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList(), eq(1), any(ParameterizedPreparedStatementSetter.class)); // Verifica que se insertó un lote
+        assertEquals(0.0, meterRegistry.get("intentos.buffer.profundidad").gauge().value()); // Verifica que el buffer quedó vacío
+        assertEquals(1, meterRegistry.get("intentos.buffer.vaciado").timer().count()); // Verifica que se midió la latencia del vaciado
+    }
+
+    // Prueba que los intentos que no caben en el buffer se descartan y se cuentan
+    @Test
+    void registrarIntentoConBufferLleno() {
+        intentoService.detener(); // Detiene el vaciado periódico para llenar el buffer
+        for (int i = 0; i < 4; i++) {
+            intentoService.registrarIntento("testuser", new ResultadoEvaluacion(1L, 10, 1, 1));
+        }
+
+        assertEquals(1.0, meterRegistry.get("intentos.buffer.descartados").counter().count()); // Verifica que se descartó un intento
+    }
+
+    // Prueba que al detener el servicio se guardan los intentos pendientes
+    @Test
+    @SuppressWarnings("unchecked")
+    void detenerVaciaElBuffer() {
+        intentoService.registrarIntento("testuser", new ResultadoEvaluacion(1L, 10, 1, 1));
+
+        intentoService.detener();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)); // Verifica que se guardó el intento pendiente
+    }
+
+    // Prueba que al detener el servicio se espera el vaciado en curso antes del vaciado final
+    @Test
+    @SuppressWarnings("unchecked")
+    void detenerEsperaElVaciadoEnCurso() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            enCurso.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return new int[0][];
+        });
+        intentoService.registrarIntento("testuser", new ResultadoEvaluacion(1L, 10, 1, 1));
+        intentoService.registrarIntento("testuser", new ResultadoEvaluacion(1L, 10, 1, 1)); // Completa un lote y programa el vaciado
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS)); // Verifica que el vaciado programado está guardando el lote
+
+        Thread deteniendo = new Thread(intentoService::detener);
+        deteniendo.start();
+        deteniendo.join(200);
+        assertTrue(deteniendo.isAlive()); // Verifica que detener espera el vaciado en curso
+        intentoService.registrarIntento("testuser", new ResultadoEvaluacion(1L, 10, 1, 1)); // Llega mientras se detiene
+        liberar.countDown();
+        deteniendo.join(5000);
+
+        assertFalse(deteniendo.isAlive()); // Verifica que detener terminó
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)); // Verifica que también se guardó el último intento
+    }
+}
@@ -0,0 +1,93 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.JwtAuthenticationFilter;
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.configuraciones.RevocacionTokens;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Mide el costo del filtro JWT por petición autenticada, con y sin la cache de tokens verificados,
+// frente a las tres verificaciones del token que hacía el filtro anterior
+// Se ejecuta desde el método main con el classpath de pruebas (target/test-classes y dependencias de test)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRETO = "secreto-de-tokens-de-acceso-solo-para-pruebas";
+
+    @Param({"0", "10000"})
+    private long maximoCache;
+
+    private JwtAuthenticationFilter filtro;
+
+    private String token;
+
+    // Crea el filtro con un usuario en memoria; los tokens llevan id y roles, así que no se carga el usuario
+    @Setup
+    public void setUp() {
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setUsername("testuser");
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(0, 1) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return usuario;
+            }
+        };
+        JwtUtils jwtUtils = new JwtUtils(SECRETO, maximoCache, 15, 10080);
+        token = jwtUtils.generateToken(usuario);
+
+        filtro = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filtro, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filtro, "jwtUtil", jwtUtils);
+        ReflectionTestUtils.setField(filtro, "revocacionTokens", new RevocacionTokens(10080));
+    }
+
+    // Petición completa a través del filtro
+    @Benchmark
+    public MockHttpServletResponse filtrar() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/examen/");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filtro.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+
+    // Las tres verificaciones completas que hacía el filtro anterior: usuario, y usuario y expiración al validar
+    @Benchmark
+    public boolean tresVerificaciones() {
+        String username = analizar().getSubject();
+        return analizar().getSubject().equals(username) && !analizar().getExpiration().before(new Date());
+    }
+
+    private Claims analizar() {
+        return Jwts.parser().setSigningKey(SECRETO.getBytes(StandardCharsets.UTF_8)).parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JwtAuthenticationFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.JwtAuthenticationFilter;
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.configuraciones.RevocacionTokens;
+import com.sistema.examenes.modelo.Rol;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioDetalles;
+import com.sistema.examenes.modelo.UsuarioRol;
+import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRETO = "secreto-de-tokens-de-acceso-solo-para-pruebas";
+
+    // Mock para la carga de usuarios, que solo deben usar los tokens sin claims de autoridades
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filtro;
+
+    private JwtUtils jwtUtils;
+
+    private RevocacionTokens revocacionTokens;
+
+    private Usuario usuario;
+
+    // Método que se ejecuta antes de cada prueba para crear un usuario con el rol ADMIN
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtUtils = new JwtUtils(SECRETO, 100, 15, 10080);
+        revocacionTokens = new RevocacionTokens(10080);
+        ReflectionTestUtils.setField(filtro, "jwtUtil", jwtUtils);
+        ReflectionTestUtils.setField(filtro, "revocacionTokens", revocacionTokens);
+
+        usuario = new Usuario();
+        usuario.setId(7L);
+        usuario.setUsername("testuser");
+        Rol rol = new Rol();
+        rol.setRolNombre("ADMIN");
+        UsuarioRol usuarioRol = new UsuarioRol();
+        usuarioRol.setUsuario(usuario);
+        usuarioRol.setRol(rol);
+        usuario.getUsuarioRoles().add(usuarioRol);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Prueba que el token con id y roles autentica sin consultar la base de datos
+    @Test
+    void autenticarDesdeClaims() throws Exception {
+        Authentication autenticacion = filtrar(jwtUtils.generateToken(usuario));
+
+        assertNotNull(autenticacion); // Verifica que la petición quedó autenticada
+        assertEquals("testuser", autenticacion.getName()); // Verifica el usuario autenticado
+        assertEquals("ADMIN", autenticacion.getAuthorities().iterator().next().getAuthority()); // Verifica el rol del token
+        assertEquals(usuario.getId(), ((UsuarioDetalles) autenticacion.getPrincipal()).getId()); // Verifica que el id del token viaja en la autenticación
+        verify(userDetailsService, never()).loadUserByUsername(anyString()); // Verifica que no se cargó el usuario
+    }
+
+    // Prueba que un token revocado no autentica la petición
+    @Test
+    void rechazarTokenRevocado() throws Exception {
+        String token = jwtUtils.generateToken(usuario);
+        revocacionTokens.revocar(usuario.getId());
+
+        assertNull(filtrar(token)); // Verifica que la petición no quedó autenticada
+    }
+
+    // Prueba que un token emitido después de la revocación vuelve a ser válido
+    @Test
+    void aceptarTokenEmitidoTrasLaRevocacion() throws Exception {
+        revocacionTokens.revocar(usuario.getId());
+        String token = Jwts.builder().setSubject("testuser")
+                .claim(JwtUtils.CLAIM_USUARIO_ID, usuario.getId())
+                .claim(JwtUtils.CLAIM_ROLES, new String[]{"NORMAL"})
+                .setIssuedAt(new Date(System.currentTimeMillis() + 2000))
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(SignatureAlgorithm.HS256, SECRETO.getBytes(StandardCharsets.UTF_8)).compact();
+
+        assertNotNull(filtrar(token)); // Verifica que la petición quedó autenticada
+    }
+
+    // Prueba que un token con roles firmado con otra clave no autentica la petición
+    @Test
+    void rechazarTokenFirmadoConOtraClave() throws Exception {
+        String token = Jwts.builder().setSubject("testuser")
+                .claim(JwtUtils.CLAIM_USUARIO_ID, usuario.getId())
+                .claim(JwtUtils.CLAIM_ROLES, new String[]{"ADMIN"})
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(SignatureAlgorithm.HS256, "examportal").compact();
+
+        assertNull(filtrar(token)); // Verifica que la petición no quedó autenticada
+        verify(userDetailsService, never()).loadUserByUsername(anyString()); // Verifica que no se llegó a cargar el usuario
+    }
+
+    // Prueba que los tokens sin claims de autoridades todavía cargan el usuario
+    @Test
+    void autenticarTokenAnterior() throws Exception {
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(usuario);
+        String token = Jwts.builder().setSubject("testuser")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(SignatureAlgorithm.HS256, SECRETO.getBytes(StandardCharsets.UTF_8)).compact();
+
+        Authentication autenticacion = filtrar(token);
+
+        assertNotNull(autenticacion); // Verifica que la petición quedó autenticada
+        assertSame(usuario, autenticacion.getPrincipal()); // Verifica que se usó el usuario cargado
+        verify(userDetailsService, times(1)).loadUserByUsername("testuser"); // Verifica que se consultó la base de datos
+    }
+
+    // Prueba que un token de acceso revocado por su jti no autentica la petición
+    @Test
+    void rechazarTokenCerrado() throws Exception {
+        String token = jwtUtils.generateToken(usuario);
+        revocacionTokens.revocarToken(jwtUtils.validarToken(token).getId(), jwtUtils.validarToken(token).getExpiration(), RevocacionTokens.Motivo.CIERRE_DE_SESION);
+
+        assertNull(filtrar(token)); // Verifica que la petición no quedó autenticada
+    }
+
+    // Prueba que un token de refresco no sirve como token de acceso
+    @Test
+    void rechazarTokenDeRefresco() throws Exception {
+        assertNull(filtrar(jwtUtils.generarTokenDeRefresco(usuario))); // Verifica que la petición no quedó autenticada
+    }
+
+    private Authentication filtrar(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/examen/");
+        request.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
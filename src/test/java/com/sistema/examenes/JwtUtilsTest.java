@@ -0,0 +1,95 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.JwtUtils;
+import com.sistema.examenes.modelo.Usuario;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRETO = "secreto-de-tokens-de-acceso-solo-para-pruebas";
+
+    private JwtUtils jwtUtils;
+
+    private Usuario usuario;
+
+    // Método que se ejecuta antes de cada prueba para crear el emisor de tokens con cache
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils(SECRETO, 100, 15, 10080);
+        usuario = new Usuario();
+        usuario.setUsername("testuser");
+    }
+
+    // Prueba que un token recién emitido se valida y entrega el usuario
+    @Test
+    void validarToken() {
+        String token = jwtUtils.generateToken(usuario);
+
+        Claims claims = jwtUtils.validarToken(token);
+
+        assertEquals("testuser", claims.getSubject()); // Verifica el usuario del token
+        assertTrue(jwtUtils.validateToken(token, usuario)); // Verifica la validación contra el usuario
+    }
+
+    // Prueba que las validaciones siguientes del mismo token usan la cache en lugar de verificar la firma otra vez
+    @Test
+    void validarTokenDesdeCache() {
+        String token = jwtUtils.generateToken(usuario);
+
+        jwtUtils.validarToken(token);
+        jwtUtils.extractUsername(token);
+        jwtUtils.validateToken(token, usuario);
+
+        assertEquals(1, jwtUtils.estadisticasCache().missCount()); // Verifica que solo la primera validación analizó el token
+        assertEquals(2, jwtUtils.estadisticasCache().hitCount()); // Verifica que las demás se resolvieron desde la cache
+    }
+
+    // Prueba que un token alterado es rechazado y no entra en la cache
+    @Test
+    void validarTokenAlterado() {
+        String token = jwtUtils.generateToken(usuario);
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtils.validarToken(alterado)); // Verifica que la firma no coincide
+        assertThrows(JwtException.class, () -> jwtUtils.validarToken(alterado)); // Verifica que el rechazo no quedó en cache
+        assertEquals(0, jwtUtils.estadisticasCache().hitCount()); // Verifica que no hubo aciertos
+    }
+
+    // Prueba que un token vencido es rechazado
+    @Test
+    void validarTokenExpirado() {
+        String token = Jwts.builder().setSubject("testuser")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(SignatureAlgorithm.HS256, SECRETO.getBytes(StandardCharsets.UTF_8)).compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtils.validarToken(token)); // Verifica que se informa la expiración
+    }
+
+    // Prueba que sin cache cada validación analiza el token
+    @Test
+    void validarTokenSinCache() {
+        JwtUtils sinCache = new JwtUtils(SECRETO, 0, 15, 10080);
+        String token = sinCache.generateToken(usuario);
+
+        assertEquals("testuser", sinCache.validarToken(token).getSubject()); // Verifica el usuario del token
+        assertEquals(0, sinCache.estadisticasCache().requestCount()); // Verifica que no se usó la cache
+    }
+
+    // Prueba que el emisor no se crea sin una clave suficientemente larga
+    @Test
+    void rechazarSecretoCorto() {
+        assertThrows(IllegalStateException.class, () -> new JwtUtils("", 100, 15, 10080)); // Verifica la clave vacía
+        assertThrows(IllegalStateException.class, () -> new JwtUtils("examportal", 100, 15, 10080)); // Verifica la clave corta
+    }
+}
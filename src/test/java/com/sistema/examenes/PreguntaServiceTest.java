@@ -1,15 +1,22 @@
 package com.sistema.examenes;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pagina;
 import com.sistema.examenes.modelo.Pregunta;
 import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.impl.CacheClavesRespuestas;
+import com.sistema.examenes.servicios.impl.CacheInstantaneasPreguntas;
+import com.sistema.examenes.servicios.impl.IndiceBusqueda;
 import com.sistema.examenes.servicios.impl.PreguntaServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.HashSet;
 import java.util.Optional;
@@ -25,6 +32,18 @@ class PreguntaServiceImplTest {
     @Mock
     private PreguntaRepository preguntaRepository;
 
+    // Mock para la cache de claves de respuestas
+    @Mock
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    // Mock para la cache de instantáneas de preguntas
+    @Mock
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    // Mock para el índice de búsqueda
+    @Mock
+    private IndiceBusqueda indiceBusqueda;
+
     // Inyección del mock en la instancia de PreguntaServiceImpl
     @InjectMocks
     private PreguntaServiceImpl preguntaService;
@@ -37,6 +56,7 @@ class PreguntaServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(preguntaService, "limiteMaximo", 10);
         examen = new Examen();
         examen.setExamenId(1L);
 
@@ -155,4 +175,16 @@ class PreguntaServiceImplTest {
         assertNotNull(preguntaObtenida); // Verifica que la pregunta obtenida no es nula
         assertEquals(pregunta.getContenido(), preguntaObtenida.getContenido()); // Verifica que el contenido de la pregunta es correcto
     }
+
+    // Prueba que la paginación por cursor de las preguntas del examen respeta el límite máximo
+    @Test
+    void obtenerPreguntasDelExamenPaginadas() {
+        when(preguntaRepository.findByExamenExamenIdAndPreguntaIdGreaterThanOrderByPreguntaIdAsc(1L, 4L, PageRequest.of(0, 11)))
+                .thenReturn(Arrays.asList(pregunta));
+
+        Pagina<Pregunta> pagina = preguntaService.obtenerPreguntasDelExamen(1L, 4L, null);
+
+        assertEquals(1, pagina.getElementos().size()); // Verifica las preguntas de la página
+        assertNull(pagina.getSiguienteCursor()); // Verifica que no hay más páginas
+    }
 }
@@ -0,0 +1,105 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.PreguntaEstudiante;
+import com.sistema.examenes.servicios.impl.InstantaneaPreguntas;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compara la entrega de preguntas serializando entidades en cada petición contra los fragmentos de la instantánea
+// Se ejecuta desde el método main con el classpath de pruebas (target/test-classes y dependencias de test)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreguntasDelExamenBenchmark {
+
+    @Param({"200", "2000"})
+    private int tamanoDelBanco;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Pregunta> banco;
+
+    private InstantaneaPreguntas instantanea;
+
+    private final Random random = new Random(42);
+
+    // Crea un banco de preguntas con un examen de 20 preguntas
+    @Setup
+    public void setUp() throws Exception {
+        Examen examen = new Examen();
+        examen.setExamenId(1L);
+        examen.setTitulo("Examen de prueba");
+        examen.setNumeroDePreguntas(20);
+
+        banco = new ArrayList<>();
+        for (long i = 1; i <= tamanoDelBanco; i++) {
+            Pregunta pregunta = new Pregunta();
+            pregunta.setPreguntaId(i);
+            pregunta.setContenido("Contenido de la pregunta " + i + " con un enunciado de longitud habitual");
+            pregunta.setOpcion1("Opción A de la pregunta " + i);
+            pregunta.setOpcion2("Opción B de la pregunta " + i);
+            pregunta.setOpcion3("Opción C de la pregunta " + i);
+            pregunta.setOpcion4("Opción D de la pregunta " + i);
+            pregunta.setRespuesta(pregunta.getOpcion1());
+            pregunta.setExamen(examen);
+            banco.add(pregunta);
+        }
+        ProjectionFactory proyecciones = new SpelAwareProxyProjectionFactory();
+        List<PreguntaEstudiante> proyectadas = new ArrayList<>();
+        for (Pregunta pregunta : banco) {
+            proyectadas.add(proyecciones.createProjection(PreguntaEstudiante.class, pregunta));
+        }
+        instantanea = InstantaneaPreguntas.construir(examen.getExamenId(), examen.getNumeroDePreguntas(), proyectadas, objectMapper);
+    }
+
+    // Mezcla las entidades y las serializa con Jackson en cada petición
+    @Benchmark
+    public byte[] serializarEntidades() throws Exception {
+        List<Pregunta> preguntas = new ArrayList<>(banco);
+        Collections.shuffle(preguntas, random);
+        return objectMapper.writeValueAsBytes(preguntas.subList(0, 20));
+    }
+
+    // Permuta índices de la instantánea y copia sus fragmentos ya serializados
+    @Benchmark
+    public byte[] escribirDesdeInstantanea() {
+        int[] indices = new int[instantanea.getCantidadDePreguntas()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(instantanea.tamanoEstimadoDeRespuesta(20));
+        salida.write('[');
+        int[] permutacion = {0, 1, 2, 3};
+        for (int i = 0; i < 20; i++) {
+            int j = i + random.nextInt(indices.length - i);
+            int indice = indices[j];
+            indices[j] = indices[i];
+            if (i > 0) {
+                salida.write(',');
+            }
+            instantanea.escribir(indice, permutacion, salida);
+        }
+        salida.write(']');
+        return salida.toByteArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(PreguntasDelExamenBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,185 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.Categoria;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.Rol;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioRol;
+import com.sistema.examenes.configuraciones.RevocacionTokens;
+import com.sistema.examenes.servicios.ExamenService;
+import com.sistema.examenes.servicios.PreguntaService;
+import com.sistema.examenes.servicios.UsuarioService;
+import com.sistema.examenes.servicios.impl.CacheClavesRespuestas;
+import com.sistema.examenes.servicios.impl.CacheInstantaneasPreguntas;
+import com.sistema.examenes.servicios.impl.EliminacionMasiva;
+import com.sistema.examenes.servicios.impl.ExamenServiceImpl;
+import com.sistema.examenes.servicios.impl.IndiceBusqueda;
+import com.sistema.examenes.servicios.impl.PreguntaServiceImpl;
+import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import com.sistema.examenes.servicios.impl.UsuarioServiceImpl;
+import com.sistema.examenes.servicios.impl.VersionesCatalogo;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureJson
+@Import({ExamenServiceImpl.class, PreguntaServiceImpl.class, UsuarioServiceImpl.class, UserDetailsServiceImpl.class})
+class PresupuestoConsultasTest {
+
+    // Dependencias de los servicios que no consultan la base de datos en las rutas medidas
+    @MockBean
+    private CacheClavesRespuestas cacheClavesRespuestas;
+
+    @MockBean
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @MockBean
+    private VersionesCatalogo versionesCatalogo;
+
+    @MockBean
+    private IndiceBusqueda indiceBusqueda;
+
+    @MockBean
+    private EliminacionMasiva eliminacionMasiva;
+
+    @MockBean
+    private RevocacionTokens revocacionTokens;
+
+    @Autowired
+    private ExamenService examenService;
+
+    @Autowired
+    private PreguntaService preguntaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Categoria categoria;
+    private Examen examen;
+    private Pregunta pregunta;
+
+    // Prueba que cada ruta se responde con un número fijo de consultas, sin importar cuántas categorías, exámenes o roles existan
+    @TestFactory
+    Stream<DynamicTest> presupuestoDeConsultasPorRuta() {
+        persistirDatos();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Presupuesto> presupuestos = new LinkedHashMap<>();
+        presupuestos.put("GET /examen/", new Presupuesto(1, () -> examenService.obtenerExamenes()));
+        presupuestos.put("GET /examen/?cursor", new Presupuesto(1, () -> examenService.obtenerExamenes(null, 20, null, null)));
+        presupuestos.put("GET /examen/activo", new Presupuesto(1, () -> examenService.obtenerExamenesActivos()));
+        presupuestos.put("GET /examen/categoria/{categoriaId}", new Presupuesto(1, () -> examenService.listarExamenesDeUnaCategoria(categoriaConId())));
+        presupuestos.put("GET /examen/categoria/activo/{categoriaId}", new Presupuesto(1, () -> examenService.obtenerExamenesActivosDeUnaCategoria(categoriaConId())));
+        presupuestos.put("GET /examen/{examenId}", new Presupuesto(1, () -> examenService.obtenerExamen(examen.getExamenId())));
+        presupuestos.put("GET /pregunta/{preguntaId}", new Presupuesto(1, () -> preguntaService.obtenerPregunta(pregunta.getPreguntaId())));
+        presupuestos.put("GET /pregunta/examen/todos/{examenId}", new Presupuesto(1, () -> preguntaService.obtenerPreguntasDelExamen(examenConId())));
+        presupuestos.put("GET /pregunta/examen/todos/{examenId}?cursor", new Presupuesto(1, () -> preguntaService.obtenerPreguntasDelExamen(examen.getExamenId(), null, 20)));
+        presupuestos.put("GET /usuarios/{username}", new Presupuesto(1, () -> usuarioService.obtenerUsuario("admin")));
+        presupuestos.put("loadUserByUsername", new Presupuesto(1, () -> userDetailsService.loadUserByUsername("admin").getAuthorities()));
+
+        return presupuestos.entrySet().stream().map(entrada -> DynamicTest.dynamicTest(entrada.getKey(), () -> {
+            entityManager.clear();
+            estadisticas.clear();
+
+            // La serialización se incluye porque recorre las asociaciones igual que la respuesta real
+            objectMapper.writeValueAsBytes(entrada.getValue().ruta.call());
+
+            long consultas = estadisticas.getPrepareStatementCount();
+            assertTrue(consultas <= entrada.getValue().maximo,
+                    entrada.getKey() + " ejecutó " + consultas + " consultas, el presupuesto es " + entrada.getValue().maximo); // Verifica que no se superó el presupuesto
+        }));
+    }
+
+    // Los controladores solo conocen el identificador que llega en la ruta
+    private Categoria categoriaConId() {
+        Categoria conId = new Categoria();
+        conId.setCategoriaId(categoria.getCategoriaId());
+        return conId;
+    }
+
+    private Examen examenConId() {
+        Examen conId = new Examen();
+        conId.setExamenId(examen.getExamenId());
+        return conId;
+    }
+
+    // Persiste 3 categorías con 2 exámenes de 3 preguntas cada una y un usuario con 2 roles
+    private void persistirDatos() {
+        for (int c = 0; c < 3; c++) {
+            Categoria nueva = new Categoria();
+            nueva.setTitulo("Categoría " + c);
+            entityManager.persist(nueva);
+            for (int e = 0; e < 2; e++) {
+                Examen nuevo = new Examen();
+                nuevo.setTitulo("Examen " + c + "-" + e);
+                nuevo.setActivo(e == 0);
+                nuevo.setCategoria(nueva);
+                entityManager.persist(nuevo);
+                for (int p = 0; p < 3; p++) {
+                    Pregunta nuevaPregunta = new Pregunta();
+                    nuevaPregunta.setContenido("Pregunta " + p);
+                    nuevaPregunta.setRespuesta("A");
+                    nuevaPregunta.setExamen(nuevo);
+                    entityManager.persist(nuevaPregunta);
+                    pregunta = nuevaPregunta;
+                }
+                examen = nuevo;
+            }
+            categoria = nueva;
+        }
+
+        Usuario usuario = new Usuario();
+        usuario.setUsername("admin");
+        entityManager.persist(usuario);
+        for (long r = 1; r <= 2; r++) {
+            Rol rol = new Rol(r, r == 1 ? "ADMIN" : "NORMAL");
+            entityManager.persist(rol);
+            UsuarioRol usuarioRol = new UsuarioRol();
+            usuarioRol.setUsuario(usuario);
+            usuarioRol.setRol(rol);
+            entityManager.persist(usuarioRol);
+        }
+        entityManager.flush();
+    }
+
+    private static class Presupuesto {
+
+        private final int maximo;
+        private final Callable<Object> ruta;
+
+        private Presupuesto(int maximo, Callable<Object> ruta) {
+            this.maximo = maximo;
+            this.ruta = ruta;
+        }
+    }
+}
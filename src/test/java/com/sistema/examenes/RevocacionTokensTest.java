@@ -0,0 +1,100 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.configuraciones.RevocacionTokens;
+import com.sistema.examenes.modelo.RevocacionUsuario;
+import com.sistema.examenes.repositorios.RevocacionUsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocacionTokensTest {
+
+    private RevocacionTokens revocacionTokens;
+
+    private Date expiracion;
+
+    // Método que se ejecuta antes de cada prueba para crear el registro con tokens de refresco de una semana
+    @BeforeEach
+    void setUp() {
+        revocacionTokens = new RevocacionTokens(10080);
+        expiracion = new Date(System.currentTimeMillis() + 15 * 60 * 1000);
+    }
+
+    // Prueba que un jti revocado se reconoce y que la segunda revocación del mismo jti se informa
+    @Test
+    void revocarToken() {
+        String jti = UUID.randomUUID().toString();
+
+        assertFalse(revocacionTokens.tokenRevocado(jti, expiracion)); // Verifica que antes no estaba revocado
+        assertNull(revocacionTokens.revocarToken(jti, expiracion, RevocacionTokens.Motivo.ROTACION)); // Verifica la primera revocación
+        assertEquals(RevocacionTokens.Motivo.ROTACION, revocacionTokens.revocarToken(jti, expiracion, RevocacionTokens.Motivo.CIERRE_DE_SESION)); // Verifica que ya estaba revocado y conserva el motivo
+        assertTrue(revocacionTokens.tokenRevocado(jti, expiracion)); // Verifica que se reconoce como revocado
+    }
+
+    // Prueba que con muchos jti revocados los demás no se reconocen como revocados
+    @Test
+    void sinFalsosPositivos() {
+        for (int i = 0; i < 20000; i++) {
+            revocacionTokens.revocarToken(UUID.randomUUID().toString(), expiracion, RevocacionTokens.Motivo.ROTACION);
+        }
+        List<String> vigentes = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            vigentes.add(UUID.randomUUID().toString());
+        }
+
+        for (String jti : vigentes) {
+            assertFalse(revocacionTokens.tokenRevocado(jti, expiracion)); // Verifica que el conjunto exacto descarta los falsos positivos
+        }
+    }
+
+    // Prueba que los jti que no son UUID también se registran
+    @Test
+    void revocarTokenSinUuid() {
+        assertNull(revocacionTokens.revocarToken("sesion-123", expiracion, RevocacionTokens.Motivo.CIERRE_DE_SESION)); // Verifica la revocación
+        assertTrue(revocacionTokens.tokenRevocado("sesion-123", expiracion)); // Verifica que se reconoce como revocado
+        assertFalse(revocacionTokens.tokenRevocado("sesion-124", expiracion)); // Verifica que otro jti no está revocado
+    }
+
+    // Prueba que revocar a un usuario rechaza los tokens emitidos antes y acepta los emitidos después
+    @Test
+    void revocarUsuario() {
+        revocacionTokens.revocar(9L);
+
+        assertTrue(revocacionTokens.revocado(9L, new Date(System.currentTimeMillis() - 5000))); // Verifica el token anterior
+        assertFalse(revocacionTokens.revocado(9L, new Date(System.currentTimeMillis() + 2000))); // Verifica el token posterior
+        assertFalse(revocacionTokens.revocado(10L, new Date())); // Verifica que otro usuario no está revocado
+    }
+
+    // Prueba que las revocaciones por usuario se guardan y se recargan tras un reinicio
+    @Test
+    void recargarRevocacionesGuardadas() {
+        RevocacionUsuarioRepository repositorio = mock(RevocacionUsuarioRepository.class);
+        ReflectionTestUtils.setField(revocacionTokens, "revocacionUsuarioRepository", repositorio);
+        revocacionTokens.revocar(9L);
+
+        ArgumentCaptor<RevocacionUsuario> guardada = ArgumentCaptor.forClass(RevocacionUsuario.class);
+        verify(repositorio).save(guardada.capture());
+        assertEquals(9L, guardada.getValue().getUsuarioId()); // Verifica que se guardó la revocación del usuario
+
+        RevocacionTokens reiniciado = new RevocacionTokens(10080);
+        ReflectionTestUtils.setField(reiniciado, "revocacionUsuarioRepository", repositorio);
+        when(repositorio.findByRevocadoEnGreaterThan(anyLong())).thenReturn(Collections.singletonList(guardada.getValue()));
+        reiniciado.cargar();
+
+        assertTrue(reiniciado.revocado(9L, new Date(System.currentTimeMillis() - 5000))); // Verifica que el token anterior sigue rechazado
+        verify(repositorio).eliminarVencidas(anyLong()); // Verifica que se descartaron las revocaciones vencidas
+    }
+}
@@ -0,0 +1,234 @@
+package com.sistema.examenes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.examenes.modelo.Examen;
+import com.sistema.examenes.modelo.Pregunta;
+import com.sistema.examenes.modelo.PreguntaEstudiante;
+import com.sistema.examenes.modelo.SesionExamen;
+import com.sistema.examenes.repositorios.ExamenRepository;
+import com.sistema.examenes.repositorios.PreguntaRepository;
+import com.sistema.examenes.servicios.impl.CacheInstantaneasPreguntas;
+import com.sistema.examenes.servicios.impl.InstantaneaPreguntas;
+import com.sistema.examenes.servicios.impl.SesionExamenServiceImpl;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SesionExamenServiceImplTest {
+
+    // Mocks para las dependencias de SesionExamenServiceImpl
+    @Mock
+    private ExamenRepository examenRepository;
+
+    @Mock
+    private PreguntaRepository preguntaRepository;
+
+    @Mock
+    private CacheInstantaneasPreguntas cacheInstantaneasPreguntas;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Inyección del mock en la instancia de SesionExamenServiceImpl
+    @InjectMocks
+    private SesionExamenServiceImpl sesionExamenService;
+
+    private static final String SECRETO = "secreto-de-sesiones-solo-para-pruebas";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ProjectionFactory proyecciones = new SpelAwareProxyProjectionFactory();
+
+    private Examen examen;
+
+    private List<Pregunta> preguntas;
+
+    // Método que se ejecuta antes de cada prueba para crear un examen de 3 preguntas con un banco de 5
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(sesionExamenService, "secreto", SECRETO);
+        ReflectionTestUtils.setField(sesionExamenService, "duracionMinutos", 60L);
+        ReflectionTestUtils.setField(sesionExamenService, "iniciosMaximo", 100L);
+        ReflectionTestUtils.setField(sesionExamenService, "objectMapper", objectMapper);
+        sesionExamenService.iniciar();
+
+        examen = new Examen();
+        examen.setExamenId(1L);
+        examen.setNumeroDePreguntas(3);
+
+        preguntas = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            Pregunta pregunta = new Pregunta();
+            pregunta.setPreguntaId(i);
+            pregunta.setOpcion1("A" + i);
+            pregunta.setOpcion2("B" + i);
+            pregunta.setOpcion3("C" + i);
+            pregunta.setOpcion4("D" + i);
+            pregunta.setRespuesta("A" + i);
+            preguntas.add(pregunta);
+        }
+        when(examenRepository.findById(anyLong())).thenReturn(Optional.of(examen));
+        when(preguntaRepository.streamPreguntaIdsDelExamen(1L)).thenAnswer(invocation -> preguntas.stream().map(Pregunta::getPreguntaId));
+        when(preguntaRepository.findPreguntasParaEstudianteByIds(anyCollection())).thenAnswer(invocation -> {
+            Set<Long> ids = new HashSet<>(invocation.<Collection<Long>>getArgument(0));
+            return proyectar(preguntas.stream().filter(pregunta -> ids.contains(pregunta.getPreguntaId())).collect(Collectors.toList()));
+        });
+    }
+
+    // Prueba que la sesión sortea la cantidad de preguntas del examen y permuta sus opciones
+    @Test
+    void iniciarSesion() throws Exception {
+        SesionExamen sesion = sesionExamenService.iniciarSesion(1L, "testuser");
+        JsonNode mostradas = objectMapper.readTree(sesion.getPreguntasJson());
+
+        assertEquals(3, sesion.getPreguntaIds().length); // Verifica la cantidad de preguntas sorteadas
+        assertEquals(3, mostradas.size()); // Verifica que se entregan las preguntas sorteadas
+        for (int i = 0; i < 3; i++) {
+            JsonNode mostrada = mostradas.get(i);
+            assertEquals(sesion.getPreguntaIds()[i], mostrada.get("preguntaId").asLong()); // Verifica el orden de entrega
+            assertFalse(mostrada.has("respuesta")); // Verifica que no se entrega la respuesta correcta
+            String[] opciones = {mostrada.get("opcion1").asText(), mostrada.get("opcion2").asText(), mostrada.get("opcion3").asText(), mostrada.get("opcion4").asText()};
+            for (int opcion = 1; opcion <= 4; opcion++) {
+                int original = SesionExamen.opcionOriginal(sesion.getPermutaciones()[i], opcion);
+                assertEquals("ABCD".charAt(original - 1), opciones[opcion - 1].charAt(0)); // Verifica que la permutación describe el orden mostrado
+            }
+        }
+    }
+
+    // Prueba que el sorteo es reproducible para un mismo estudiante
+    @Test
+    void iniciarSesionReproducible() {
+        SesionExamen primera = sesionExamenService.iniciarSesion(1L, "testuser");
+        SesionExamen segunda = sesionExamenService.iniciarSesion(1L, "testuser");
+
+        assertTrue(Arrays.equals(primera.getPreguntaIds(), segunda.getPreguntaIds())); // Verifica que se sortean las mismas preguntas
+        assertTrue(Arrays.equals(primera.getPermutaciones(), segunda.getPermutaciones())); // Verifica que se mantienen las permutaciones
+        assertEquals(3, Arrays.stream(primera.getPreguntaIds()).distinct().count()); // Verifica que no hay preguntas repetidas
+    }
+
+    // Prueba que la instantánea en memoria entrega el mismo sorteo y el mismo contenido que la consulta a la base de datos
+    @Test
+    void iniciarSesionDesdeInstantanea() throws Exception {
+        SesionExamen desdeBaseDeDatos = sesionExamenService.iniciarSesion(1L, "testuser");
+        when(cacheInstantaneasPreguntas.obtener(1L)).thenReturn(Optional.of(InstantaneaPreguntas.construir(1L, 3, proyectar(preguntas), objectMapper)));
+
+        SesionExamen desdeInstantanea = sesionExamenService.iniciarSesion(1L, "testuser");
+
+        assertTrue(Arrays.equals(desdeBaseDeDatos.getPreguntaIds(), desdeInstantanea.getPreguntaIds())); // Verifica que se sortean las mismas preguntas
+        assertTrue(Arrays.equals(desdeBaseDeDatos.getPermutaciones(), desdeInstantanea.getPermutaciones())); // Verifica las mismas permutaciones
+        assertEquals(objectMapper.readTree(desdeBaseDeDatos.getPreguntasJson()), objectMapper.readTree(desdeInstantanea.getPreguntasJson())); // Verifica el mismo contenido
+        verify(preguntaRepository, times(1)).findPreguntasParaEstudianteByIds(anyCollection()); // Verifica que solo la primera sesión consulta la base de datos
+        verify(transactionManager, times(1)).getTransaction(any()); // Verifica que solo la primera sesión abre una transacción
+    }
+
+    // Prueba que el token firmado conserva el examen, las preguntas y las permutaciones
+    @Test
+    void emitirYValidarToken() {
+        SesionExamen sesion = sesionExamenService.iniciarSesion(1L, "testuser");
+
+        SesionExamen leida = sesionExamenService.validarToken(sesionExamenService.emitirToken(sesion));
+
+        assertEquals(1L, leida.getExamenId()); // Verifica el examen de la sesión
+        assertEquals("testuser", leida.getUsername()); // Verifica el estudiante de la sesión
+        assertTrue(Arrays.equals(sesion.getPreguntaIds(), leida.getPreguntaIds())); // Verifica las preguntas sorteadas
+        assertTrue(Arrays.equals(sesion.getPermutaciones(), leida.getPermutaciones())); // Verifica las permutaciones
+        assertNotNull(leida.getInicio()); // Verifica la hora de inicio
+    }
+
+    // Prueba que un token alterado es rechazado
+    @Test
+    void validarTokenAlterado() {
+        String token = sesionExamenService.emitirToken(sesionExamenService.iniciarSesion(1L, "testuser"));
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> sesionExamenService.validarToken(alterado)); // Verifica que la firma no coincide
+    }
+
+    // Prueba que se rechazan tokens firmados con preguntas repetidas, de más o sin permutación
+    @Test
+    void validarTokenMalformado() {
+        assertThrows(IllegalArgumentException.class, () -> sesionExamenService.validarToken(null)); // Verifica que falta el token
+        assertThrows(IllegalArgumentException.class, () -> sesionExamenService.validarToken(tokenFirmado(Arrays.asList(1L, 1L), "00"))); // Verifica preguntas repetidas
+        assertThrows(IllegalArgumentException.class, () -> sesionExamenService.validarToken(tokenFirmado(Arrays.asList(1L, 2L), "0"))); // Verifica permutaciones faltantes
+        assertThrows(IllegalArgumentException.class, () -> sesionExamenService.validarToken(tokenFirmado(Arrays.asList(1L, 2L), "0z"))); // Verifica una permutación inexistente
+    }
+
+    // Prueba que la lista firmada de preguntas se acepta sin consultar el examen
+    @Test
+    void validarTokenSinConsultarElExamen() {
+        SesionExamen sesion = sesionExamenService.validarToken(tokenFirmado(Arrays.asList(1L, 2L, 3L, 4L), "0000"));
+
+        assertEquals(4, sesion.getPreguntaIds().length); // Verifica que se conservan las preguntas del token
+        assertEquals("testuser", sesion.getUsername()); // Verifica el estudiante de la sesión
+        verify(examenRepository, never()).findById(anyLong()); // Verifica que no se consultó el examen
+        verify(preguntaRepository, never()).countByExamenExamenId(anyLong()); // Verifica que no se contaron las preguntas
+    }
+
+    // Prueba que recargar el examen conserva la hora de inicio de la sesión
+    @Test
+    void iniciarSesionConservaElInicio() throws Exception {
+        SesionExamen primera = sesionExamenService.iniciarSesion(1L, "testuser");
+        Thread.sleep(5);
+        SesionExamen segunda = sesionExamenService.iniciarSesion(1L, "testuser");
+
+        assertEquals(primera.getInicio(), segunda.getInicio()); // Verifica que no se reinició el tiempo
+        assertTrue(sesionExamenService.iniciarSesion(1L, "otro").getInicio().after(primera.getInicio())); // Verifica que cada estudiante tiene su propio inicio
+    }
+
+    // Prueba que el servicio no arranca sin un secreto suficientemente largo
+    @Test
+    void verificarSecreto() {
+        ReflectionTestUtils.setField(sesionExamenService, "secreto", "");
+        assertThrows(IllegalStateException.class, () -> sesionExamenService.iniciar()); // Verifica el secreto vacío
+        ReflectionTestUtils.setField(sesionExamenService, "secreto", "corto");
+        assertThrows(IllegalStateException.class, () -> sesionExamenService.iniciar()); // Verifica el secreto corto
+        ReflectionTestUtils.setField(sesionExamenService, "secreto", SECRETO);
+        assertDoesNotThrow(() -> sesionExamenService.iniciar()); // Verifica un secreto válido
+    }
+
+    private String tokenFirmado(List<Long> preguntaIds, String permutaciones) {
+        return Jwts.builder()
+                .setSubject("testuser")
+                .claim("e", 1L)
+                .claim("q", preguntaIds)
+                .claim("o", permutaciones)
+                .setIssuedAt(new Date())
+                .signWith(SignatureAlgorithm.HS256, SECRETO.getBytes(StandardCharsets.UTF_8))
+                .compact();
+    }
+
+    private List<PreguntaEstudiante> proyectar(List<Pregunta> preguntas) {
+        return preguntas.stream().map(pregunta -> proyecciones.createProjection(PreguntaEstudiante.class, pregunta)).collect(Collectors.toList());
+    }
+}
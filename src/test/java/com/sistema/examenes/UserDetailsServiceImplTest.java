@@ -0,0 +1,99 @@
+package com.sistema.examenes;
+
+import com.sistema.examenes.modelo.Rol;
+import com.sistema.examenes.modelo.Usuario;
+import com.sistema.examenes.modelo.UsuarioDetalles;
+import com.sistema.examenes.modelo.UsuarioRol;
+import com.sistema.examenes.repositorios.UsuarioRepository;
+import com.sistema.examenes.servicios.UsuarioModificadoEvent;
+import com.sistema.examenes.servicios.impl.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserDetailsServiceImplTest {
+
+    private UsuarioRepository usuarioRepository;
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    private Usuario usuario;
+
+    // Método que se ejecuta antes de cada prueba para crear el servicio con cache y un usuario con el rol NORMAL
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = mock(UsuarioRepository.class);
+        userDetailsService = new UserDetailsServiceImpl(100, 300);
+        ReflectionTestUtils.setField(userDetailsService, "usuarioRepository", usuarioRepository);
+
+        usuario = new Usuario();
+        usuario.setId(3L);
+        usuario.setUsername("testuser");
+        usuario.setPassword("clave");
+        Rol rol = new Rol();
+        rol.setRolNombre("NORMAL");
+        UsuarioRol usuarioRol = new UsuarioRol();
+        usuarioRol.setUsuario(usuario);
+        usuarioRol.setRol(rol);
+        usuario.getUsuarioRoles().add(usuarioRol);
+        when(usuarioRepository.findByUsername("testuser")).thenReturn(usuario);
+    }
+
+    // Prueba que el usuario se carga una vez y las siguientes peticiones usan la copia en cache
+    @Test
+    void cargarUsuarioDesdeCache() {
+        UserDetails primero = userDetailsService.loadUserByUsername("testuser");
+        UserDetails segundo = userDetailsService.loadUserByUsername("testuser");
+
+        assertSame(primero, segundo); // Verifica que se comparte la misma copia
+        assertEquals("NORMAL", primero.getAuthorities().iterator().next().getAuthority()); // Verifica las autoridades calculadas
+        assertSame(primero.getAuthorities(), segundo.getAuthorities()); // Verifica que las autoridades no se recalculan
+        verify(usuarioRepository, times(1)).findByUsername("testuser"); // Verifica que se consultó la base de datos una vez
+    }
+
+    // Prueba que la copia no cambia si se modifica la entidad
+    @Test
+    void copiaInmutable() {
+        UsuarioDetalles detalles = (UsuarioDetalles) userDetailsService.loadUserByUsername("testuser");
+        usuario.setPerfil("nuevo.png");
+        usuario.getUsuarioRoles().clear();
+
+        assertNull(detalles.getPerfil()); // Verifica que el perfil es el de la carga
+        assertEquals(1, detalles.getAuthorities().size()); // Verifica que se conservan las autoridades
+        assertThrows(UnsupportedOperationException.class, () -> detalles.getAuthorities().clear()); // Verifica que las autoridades no se pueden modificar
+    }
+
+    // Prueba que el evento de modificación por nombre de usuario descarta la copia
+    @Test
+    void invalidarPorUsername() {
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.alModificarUsuario(new UsuarioModificadoEvent(null, "testuser"));
+        userDetailsService.loadUserByUsername("testuser");
+
+        verify(usuarioRepository, times(2)).findByUsername("testuser"); // Verifica que se volvió a cargar el usuario
+    }
+
+    // Prueba que el evento de eliminación, que solo conoce el id, también descarta la copia
+    @Test
+    void invalidarPorId() {
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.alModificarUsuario(new UsuarioModificadoEvent(3L, null));
+        userDetailsService.loadUserByUsername("testuser");
+
+        verify(usuarioRepository, times(2)).findByUsername("testuser"); // Verifica que se volvió a cargar el usuario
+    }
+
+    // Prueba que un usuario inexistente no queda en cache
+    @Test
+    void usuarioInexistente() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("otro")); // Verifica el error
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("otro")); // Verifica el error otra vez
+
+        verify(usuarioRepository, times(2)).findByUsername("otro"); // Verifica que no se guardó el resultado vacío
+    }
+}
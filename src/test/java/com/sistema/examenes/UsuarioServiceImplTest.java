@@ -1,22 +1,26 @@
 package com.sistema.examenes;
 
+import com.sistema.examenes.configuraciones.RevocacionTokens;
 import com.sistema.examenes.modelo.Rol;
 import com.sistema.examenes.modelo.Usuario;
 import com.sistema.examenes.modelo.UsuarioRol;
 import com.sistema.examenes.repositorios.RolRepository;
 import com.sistema.examenes.repositorios.UsuarioRepository;
+import com.sistema.examenes.servicios.UsuarioModificadoEvent;
 import com.sistema.examenes.servicios.impl.UsuarioServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 public class UsuarioServiceImplTest {
@@ -28,6 +32,14 @@ public class UsuarioServiceImplTest {
     @Mock
     private RolRepository rolRepository;
 
+    // Mock para el registro de tokens revocados
+    @Mock
+    private RevocacionTokens revocacionTokens;
+
+    // Mock para la publicación de cambios en los usuarios
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     // Inyección de mocks en la instancia de UsuarioServiceImpl
     @InjectMocks
     private UsuarioServiceImpl usuarioService;
@@ -103,5 +115,7 @@ public class UsuarioServiceImplTest {
 
         // Verificación de la prueba
         verify(usuarioRepository, times(1)).deleteById(usuarioId); // Verifica que el método deleteById fue llamado una vez
+        verify(revocacionTokens, times(1)).revocar(usuarioId); // Verifica que se revocaron los tokens del usuario
+        verify(eventPublisher, times(1)).publishEvent(any(UsuarioModificadoEvent.class)); // Verifica que se avisó la eliminación del usuario
     }
 }